@@ -0,0 +1,101 @@
+package co.istad.gym.bench;
+
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.dao.PlanDAOImpl;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Tops a local development database up to a given size with synthetic rows.
+// Member n is 'First' || n / 'Last' || n / 'user' || n || '@example.com', so
+// benchmarks can pick keywords and ids that are known to exist.
+public class BenchmarkDataset {
+
+    private BenchmarkDataset() {}
+
+    public static void seedMembers(int target) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            int existing = count(stmt, "SELECT COUNT(*) FROM members");
+            if (existing >= target) {
+                System.out.println("Using existing " + existing + " members");
+                return;
+            }
+
+            int missing = target - existing;
+            System.out.println("Seeding " + missing + " synthetic members...");
+            long start = System.nanoTime();
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO members (first_name, last_name, email, phone_number, date_of_birth, " +
+                            "emergency_contact, created_at, updated_at, is_deleted) " +
+                            "SELECT 'First' || g, 'Last' || g, 'user' || g || '@example.com', " +
+                            "'555' || lpad(g::text, 7, '0'), NULL, NULL, now(), now(), false " +
+                            "FROM generate_series(?, ?) g")) {
+                pstmt.setInt(1, existing + 1);
+                pstmt.setInt(2, target);
+                pstmt.executeUpdate();
+            }
+            for (String sql : PlanDAOImpl.LINK_SUBSCRIPTIONS_SQL) {
+                stmt.executeUpdate(sql);
+            }
+            System.out.printf("Seeded in %.1fs\n", (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    // Adds subscriptions until there are perMember for every member, spread over
+    // the three standard plans with a mix of paid, pending and expired rows
+    public static void seedSubscriptions(int perMember) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            int members = count(stmt, "SELECT COUNT(*) FROM members WHERE is_deleted = false");
+            int existing = count(stmt, "SELECT COUNT(*) FROM subscriptions");
+            int target = members * perMember;
+            if (existing >= target) {
+                System.out.println("Using existing " + existing + " subscriptions");
+                return;
+            }
+
+            System.out.println("Seeding " + (target - existing) + " synthetic subscriptions...");
+            long start = System.nanoTime();
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO subscriptions (member_id, plan_name, monthly_price, start_date, end_date, " +
+                            "payment_status, created_at, updated_at, is_deleted) " +
+                            "SELECT m.member_id, " +
+                            "  (ARRAY['Basic Monthly', 'Premium Monthly', 'Gold Annual'])[1 + (m.member_id + k) % 3], " +
+                            "  (ARRAY[29.99, 59.99, 499.99])[1 + (m.member_id + k) % 3], " +
+                            "  CURRENT_DATE - ((m.member_id * 7 + k * 31) % 400), " +
+                            "  CURRENT_DATE - ((m.member_id * 7 + k * 31) % 400) + " +
+                            "    CASE WHEN (m.member_id + k) % 3 = 2 THEN 365 ELSE 30 END, " +
+                            "  CASE WHEN (m.member_id + k) % 5 = 0 THEN 'PENDING' ELSE 'PAID' END, " +
+                            "  now(), now(), false " +
+                            "FROM members m CROSS JOIN generate_series(1, ?) k " +
+                            "WHERE m.is_deleted = false " +
+                            "AND NOT EXISTS (SELECT 1 FROM subscriptions s WHERE s.member_id = m.member_id)")) {
+                pstmt.setInt(1, perMember);
+                pstmt.executeUpdate();
+            }
+            for (String sql : PlanDAOImpl.LINK_SUBSCRIPTIONS_SQL) {
+                stmt.executeUpdate(sql);
+            }
+            System.out.printf("Seeded in %.1fs\n", (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    public static void analyze() throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE members");
+            stmt.execute("ANALYZE subscriptions");
+        }
+    }
+
+    private static int count(Statement stmt, String sql) throws Exception {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package co.istad.gym.bench;
+
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.config.SchemaMigrator;
+import co.istad.gym.dao.MemberDAOImpl;
+import co.istad.gym.dao.MemberRowMapper;
+import co.istad.gym.dao.RowMapper;
+import co.istad.gym.dao.SubscriptionDAOImpl;
+import co.istad.gym.dao.SubscriptionRowMapper;
+import co.istad.gym.model.Member;
+import co.istad.gym.model.Subscription;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Throughput of the raw DAO implementations (no cache or listeners in front)
+// and of the row mappers. Run against a local development database only: it
+// tops the tables up with synthetic rows first. Add -prof gc for bytes/op.
+//
+//   mvn package
+//   java -jar target/benchmarks.jar DaoBenchmarks -prof gc [-p members=100000 -p subsPerMember=2]
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaoBenchmarks {
+    // Rows mapped per mapper invocation; results are reported per row
+    private static final int MAPPER_ROWS = 10_000;
+
+    @Param("100000")
+    private int members;
+
+    @Param("2")
+    private int subsPerMember;
+
+    private MemberDAOImpl memberDAO;
+    private SubscriptionDAOImpl subscriptionDAO;
+    private CachedRowSet memberRows;
+    private CachedRowSet subscriptionRows;
+
+    @Setup
+    public void setUp() throws Exception {
+        DatabaseConfig.testConnection();
+        SchemaMigrator.migrate();
+        BenchmarkDataset.seedMembers(members);
+        BenchmarkDataset.seedSubscriptions(subsPerMember);
+        BenchmarkDataset.analyze();
+
+        memberDAO = new MemberDAOImpl();
+        subscriptionDAO = new SubscriptionDAOImpl();
+
+        // Rows are cached client-side so the mapper benchmarks measure only the mapping
+        memberRows = load("SELECT " + MemberRowMapper.INSTANCE.columns() +
+                " FROM members ORDER BY member_id LIMIT " + MAPPER_ROWS);
+        subscriptionRows = load("SELECT " + SubscriptionRowMapper.INSTANCE.columns() +
+                " FROM subscriptions ORDER BY subscription_id LIMIT " + MAPPER_ROWS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        DatabaseConfig.closeConnection();
+    }
+
+    // Each benchmark thread draws its own ids and keywords
+    @State(Scope.Thread)
+    public static class Keys {
+        private final SplittableRandom random = new SplittableRandom(42);
+
+        int next(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    // MEMBER DAO
+    @Benchmark
+    public Optional<Member> memberGetById(Keys keys) throws Exception {
+        return memberDAO.getMemberById(1 + keys.next(members));
+    }
+
+    @Benchmark
+    public List<Member> memberSearch(Keys keys) throws Exception {
+        return memberDAO.searchMembers("Last" + keys.next(members));
+    }
+
+    @Benchmark
+    public List<Member> memberGetAll() throws Exception {
+        return memberDAO.getAllMembers();
+    }
+
+    // SUBSCRIPTION DAO
+    @Benchmark
+    public List<Subscription> subscriptionGetActive() throws Exception {
+        return subscriptionDAO.getActiveSubscriptions();
+    }
+
+    @Benchmark
+    public List<Subscription> subscriptionSearch(Keys keys) throws Exception {
+        return subscriptionDAO.searchSubscriptions("First" + keys.next(members), "PAID", 0);
+    }
+
+    @Benchmark
+    public double subscriptionMonthlyRevenue() throws Exception {
+        return subscriptionDAO.calculateMonthlyRevenue();
+    }
+
+    // MAPPERS - the by-name mappers are the lookups the DAOs used before OrdinalRowMapper
+    @Benchmark
+    @OperationsPerInvocation(MAPPER_ROWS)
+    public Member memberMapperByName() throws Exception {
+        return mapAll(memberRows, DaoBenchmarks::mapMemberByName);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MAPPER_ROWS)
+    public Member memberMapperByOrdinal() throws Exception {
+        return mapAll(memberRows, MemberRowMapper.INSTANCE.bind(memberRows));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MAPPER_ROWS)
+    public Subscription subscriptionMapperByName() throws Exception {
+        return mapAll(subscriptionRows, DaoBenchmarks::mapSubscriptionByName);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MAPPER_ROWS)
+    public Subscription subscriptionMapperByOrdinal() throws Exception {
+        return mapAll(subscriptionRows, SubscriptionRowMapper.INSTANCE.bind(subscriptionRows));
+    }
+
+    private static CachedRowSet load(String sql) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+            rows.populate(rs);
+            if (rows.size() < MAPPER_ROWS) {
+                throw new IllegalStateException("Mapper benchmarks need " + MAPPER_ROWS + " rows but found "
+                        + rows.size() + "; raise -p members");
+            }
+            return rows;
+        }
+    }
+
+    private static <T> T mapAll(CachedRowSet rows, RowMapper<T> mapper) throws Exception {
+        rows.beforeFirst();
+        T last = null;
+        while (rows.next()) {
+            last = mapper.map(rows);
+        }
+        return last;
+    }
+
+    private static Member mapMemberByName(ResultSet rs) throws SQLException {
+        Member member = new Member();
+        member.setMemberId(rs.getInt("member_id"));
+        member.setFirstName(rs.getString("first_name"));
+        member.setLastName(rs.getString("last_name"));
+        member.setEmail(rs.getString("email"));
+        member.setPhoneNumber(rs.getString("phone_number"));
+
+        Date dob = rs.getDate("date_of_birth");
+        if (dob != null) {
+            member.setDateOfBirth(dob.toLocalDate());
+        }
+
+        member.setEmergencyContact(rs.getString("emergency_contact"));
+        member.setDeleted(rs.getBoolean("is_deleted"));
+        member.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        member.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return member;
+    }
+
+    private static Subscription mapSubscriptionByName(ResultSet rs) throws SQLException {
+        Subscription subscription = new Subscription();
+        subscription.setSubscriptionId(rs.getInt("subscription_id"));
+        subscription.setMemberId(rs.getInt("member_id"));
+        subscription.setPlanId(rs.getInt("plan_id"));
+        subscription.setPlanName(rs.getString("plan_name"));
+        subscription.setMonthlyPrice(rs.getDouble("monthly_price"));
+        subscription.setStartDate(rs.getDate("start_date").toLocalDate());
+        subscription.setEndDate(rs.getDate("end_date").toLocalDate());
+        subscription.setPaymentStatus(rs.getString("payment_status"));
+        subscription.setDeleted(rs.getBoolean("is_deleted"));
+        subscription.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        subscription.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return subscription;
+    }
+}
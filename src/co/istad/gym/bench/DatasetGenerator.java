@@ -0,0 +1,364 @@
+package co.istad.gym.bench;
+
+import co.istad.gym.bulk.BulkCopy;
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.model.Member;
+import co.istad.gym.model.Subscription;
+import co.istad.gym.util.CsvUtils;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.postgresql.copy.CopyIn;
+
+// Deterministic synthetic members and subscriptions for load testing. Every
+// member draws from its own SplittableRandom derived from (seed, index), so the
+// same seed produces the same rows whatever the thread count or shard size.
+// Shards of consecutive members are written in parallel through COPY, each in
+// its own transaction, with ids assigned up front so shards never overlap.
+//
+//   java co.istad.gym.bench.DatasetGenerator [members=1000000] [maxSubscriptions=6]
+//        [seed=42] [threads=<cpus>] [shardSize=50000] [asOf=<today>]
+public class DatasetGenerator {
+    private static final String MEMBER_COPY = "COPY members (" + BulkCopy.MEMBER_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+    private static final String SUBSCRIPTION_COPY = "COPY subscriptions (" + BulkCopy.SUBSCRIPTION_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+    private static final int FLUSH_BYTES = 1 << 16;
+
+    private static final String[] FIRST_NAMES = {
+            "Sokha", "Dara", "Vanna", "Sophea", "Rithy", "Channary", "Bopha", "Visal", "Kosal", "Srey",
+            "James", "Mary", "John", "Linda", "David", "Sarah", "Michael", "Emma", "Daniel", "Olivia",
+            "Wei", "Mei", "Hiroshi", "Yuki", "Minh", "Linh", "Arjun", "Priya", "Carlos", "Sofia"
+    };
+    private static final String[] LAST_NAMES = {
+            "Chan", "Sok", "Kim", "Lim", "Heng", "Seng", "Meas", "Keo", "Phan", "Ly",
+            "Smith", "Johnson", "Brown", "Taylor", "Wilson", "Davies", "Evans", "Thomas", "Roberts", "Walker",
+            "Wang", "Li", "Tanaka", "Sato", "Nguyen", "Tran", "Sharma", "Patel", "Garcia", "Lopez"
+    };
+    private static final String[] EMAIL_DOMAINS = {"gmail.com", "yahoo.com", "outlook.com", "example.com"};
+
+    // Plan mix: most members are on Basic, a minority commit to a year
+    private static final String[] PLAN_NAMES = {"Basic Monthly", "Premium Monthly", "Gold Annual"};
+    private static final double[] PLAN_PRICES = {29.99, 59.99, 499.99};
+    private static final double[] PLAN_WEIGHTS = {0.55, 0.30, 0.15};
+
+    private static final double RENEWAL_PROBABILITY = 0.65;
+    private static final double MEMBER_DELETED_PROBABILITY = 0.02;
+    private static final double SUBSCRIPTION_DELETED_PROBABILITY = 0.01;
+    private static final int HISTORY_DAYS = 3 * 365;
+
+    private final long seed;
+    private final int maxSubscriptions;
+    private final LocalDate asOf;
+
+    public DatasetGenerator(long seed, int maxSubscriptions, LocalDate asOf) {
+        this.seed = seed;
+        this.maxSubscriptions = maxSubscriptions;
+        this.asOf = asOf;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        int members = Integer.parseInt(options.getOrDefault("members", "1000000"));
+        int maxSubscriptions = Integer.parseInt(options.getOrDefault("maxSubscriptions", "6"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int shardSize = Integer.parseInt(options.getOrDefault("shardSize", "50000"));
+        LocalDate asOf = options.containsKey("asOf") ? LocalDate.parse(options.get("asOf")) : LocalDate.now();
+
+        DatabaseConfig.testConnection();
+        try {
+            new DatasetGenerator(seed, maxSubscriptions, asOf).generate(members, threads, shardSize);
+            BenchmarkDataset.analyze();
+        } finally {
+            DatabaseConfig.closeConnection();
+        }
+    }
+
+    // Takes key=value arguments
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    // Appends count members (and their subscriptions) after the current highest ids
+    public void generate(int count, int threads, int shardSize) throws Exception {
+        int firstMemberId = nextId("members", "member_id");
+        int firstSubscriptionId = nextId("subscriptions", "subscription_id");
+        if ((long) firstSubscriptionId + (long) count * maxSubscriptions > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many rows for integer subscription ids");
+        }
+
+        // Threads beyond the pool size would only queue for a connection
+        int workers = Math.max(1, Math.min(threads, DatabaseConfig.getPool().getMaxSize()));
+        System.out.printf("Generating %d members (up to %d subscriptions each) with %d threads, seed %d\n",
+                count, maxSubscriptions, workers, seed);
+
+        AtomicLong memberRows = new AtomicLong();
+        AtomicLong subscriptionRows = new AtomicLong();
+        long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> shards = new ArrayList<>();
+            for (int from = 0; from < count; from += shardSize) {
+                int shardFrom = from;
+                int shardTo = Math.min(count, from + shardSize);
+                shards.add(executor.submit(() -> {
+                    writeShard(shardFrom, shardTo, firstMemberId, firstSubscriptionId, memberRows, subscriptionRows);
+                    return null;
+                }));
+            }
+            for (Future<?> shard : shards) {
+                shard.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        resetSequence("members", "member_id");
+        resetSequence("subscriptions", "subscription_id");
+        // Rows are copied with plan names only
+        DAOFactory.getPlanDAO().linkSubscriptions();
+        DAOFactory.notifyBulkChange();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long rows = memberRows.get() + subscriptionRows.get();
+        System.out.printf("Generated %d members and %d subscriptions in %.1fs (%.0f rows/s)\n",
+                memberRows.get(), subscriptionRows.get(), seconds, rows / seconds);
+    }
+
+    public Member generateMember(int index, int memberId) {
+        return generateMember(random(index), index, memberId);
+    }
+
+    public List<Subscription> generateSubscriptions(int index, int memberId, int firstSubscriptionId) {
+        SplittableRandom random = random(index);
+        Member member = generateMember(random, index, memberId);
+        return generateSubscriptions(random, member, firstSubscriptionId);
+    }
+
+    private void writeShard(int from, int to, int firstMemberId, int firstSubscriptionId,
+                            AtomicLong memberRows, AtomicLong subscriptionRows) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Members first so the subscriptions' foreign keys resolve in the same transaction
+                try (CopyWriter members = new CopyWriter(BulkCopy.openCopyIn(conn, MEMBER_COPY))) {
+                    for (int index = from; index < to; index++) {
+                        appendMember(members.row(), generateMember(index, firstMemberId + index));
+                        members.endRow();
+                    }
+                    memberRows.addAndGet(members.finish());
+                }
+
+                try (CopyWriter subscriptions = new CopyWriter(BulkCopy.openCopyIn(conn, SUBSCRIPTION_COPY))) {
+                    for (int index = from; index < to; index++) {
+                        int subscriptionBase = firstSubscriptionId + index * maxSubscriptions;
+                        for (Subscription subscription : generateSubscriptions(index, firstMemberId + index, subscriptionBase)) {
+                            appendSubscription(subscriptions.row(), subscription);
+                            subscriptions.endRow();
+                        }
+                    }
+                    subscriptionRows.addAndGet(subscriptions.finish());
+                }
+
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private SplittableRandom random(int index) {
+        // SplittableRandom mixes its seed, so adjacent indexes still give independent streams
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+    }
+
+    private Member generateMember(SplittableRandom random, int index, int memberId) {
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+        // Recent sign-ups are more common than old ones
+        int joinedDaysAgo = (int) (HISTORY_DAYS * Math.pow(random.nextDouble(), 1.5));
+        LocalDateTime joinedAt = asOf.minusDays(joinedDaysAgo).atTime(6 + random.nextInt(16), random.nextInt(60));
+
+        Member member = new Member();
+        member.setMemberId(memberId);
+        member.setFirstName(firstName);
+        member.setLastName(lastName);
+        member.setEmail((firstName + "." + lastName + index).toLowerCase(Locale.ROOT) + "@"
+                + EMAIL_DOMAINS[random.nextInt(EMAIL_DOMAINS.length)]);
+        member.setPhoneNumber(phoneNumber(random));
+        member.setDateOfBirth(asOf.minusYears(16 + (int) (50 * Math.pow(random.nextDouble(), 2)))
+                .minusDays(random.nextInt(365)));
+        if (random.nextDouble() < 0.5) {
+            member.setEmergencyContact(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + lastName
+                    + " " + phoneNumber(random));
+        }
+        member.setCreatedAt(joinedAt);
+        member.setUpdatedAt(joinedAt);
+        member.setDeleted(random.nextDouble() < MEMBER_DELETED_PROBABILITY);
+        return member;
+    }
+
+    // Back-to-back subscriptions from the join date: each one is renewed with
+    // some probability, otherwise the history stops, so older members end up
+    // with a mix of expired, current and unpaid rows
+    private List<Subscription> generateSubscriptions(SplittableRandom random, Member member, int firstSubscriptionId) {
+        List<Subscription> subscriptions = new ArrayList<>();
+        LocalDate start = member.getCreatedAt().toLocalDate();
+        int plan = pickPlan(random);
+
+        while (subscriptions.size() < maxSubscriptions && !start.isAfter(asOf)) {
+            LocalDate end = plan == 2 ? start.plusYears(1) : start.plusMonths(1);
+            boolean current = !end.isBefore(asOf);
+
+            Subscription subscription = new Subscription();
+            subscription.setSubscriptionId(firstSubscriptionId + subscriptions.size());
+            subscription.setMemberId(member.getMemberId());
+            subscription.setPlanName(PLAN_NAMES[plan]);
+            subscription.setMonthlyPrice(PLAN_PRICES[plan]);
+            subscription.setStartDate(start);
+            subscription.setEndDate(end);
+            subscription.setPaymentStatus(random.nextDouble() < (current ? 0.85 : 0.97) ? "PAID" : "PENDING");
+            LocalDateTime createdAt = start.atTime(6 + random.nextInt(16), random.nextInt(60));
+            subscription.setCreatedAt(createdAt);
+            subscription.setUpdatedAt(createdAt);
+            subscription.setDeleted(member.isDeleted() || random.nextDouble() < SUBSCRIPTION_DELETED_PROBABILITY);
+            subscriptions.add(subscription);
+
+            if (random.nextDouble() >= RENEWAL_PROBABILITY) {
+                break;
+            }
+            // Renewals mostly continue straight on; some lapse for a while, some switch plan
+            start = random.nextDouble() < 0.7 ? end : end.plusDays(1 + random.nextInt(90));
+            if (random.nextDouble() < 0.15) {
+                plan = pickPlan(random);
+            }
+        }
+        return subscriptions;
+    }
+
+    private static int pickPlan(SplittableRandom random) {
+        double r = random.nextDouble();
+        for (int i = 0; i < PLAN_WEIGHTS.length - 1; i++) {
+            if (r < PLAN_WEIGHTS[i]) {
+                return i;
+            }
+            r -= PLAN_WEIGHTS[i];
+        }
+        return PLAN_WEIGHTS.length - 1;
+    }
+
+    private static String phoneNumber(SplittableRandom random) {
+        return "0" + (10 + random.nextInt(90)) + (1_000_000 + random.nextInt(9_000_000));
+    }
+
+    // Column order follows BulkCopy.MEMBER_COLUMNS
+    private static void appendMember(StringBuilder row, Member m) {
+        row.append(m.getMemberId()).append(',')
+                .append(CsvUtils.escape(m.getFirstName())).append(',')
+                .append(CsvUtils.escape(m.getLastName())).append(',')
+                .append(CsvUtils.escape(m.getEmail())).append(',')
+                .append(CsvUtils.escape(m.getPhoneNumber())).append(',')
+                .append(m.getDateOfBirth() == null ? "" : m.getDateOfBirth().toString()).append(',')
+                .append(CsvUtils.escape(m.getEmergencyContact())).append(',')
+                .append(m.getCreatedAt()).append(',')
+                .append(m.getUpdatedAt()).append(',')
+                .append(m.isDeleted());
+    }
+
+    // Column order follows BulkCopy.SUBSCRIPTION_COLUMNS
+    private static void appendSubscription(StringBuilder row, Subscription s) {
+        row.append(s.getSubscriptionId()).append(',')
+                .append(s.getMemberId()).append(',')
+                .append(CsvUtils.escape(s.getPlanName())).append(',')
+                .append(s.getMonthlyPrice()).append(',')
+                .append(s.getStartDate()).append(',')
+                .append(s.getEndDate()).append(',')
+                .append(s.getPaymentStatus()).append(',')
+                .append(s.getCreatedAt()).append(',')
+                .append(s.getUpdatedAt()).append(',')
+                .append(s.isDeleted());
+    }
+
+    private static int nextId(String table, String keyColumn) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(" + keyColumn + "), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void resetSequence(String table, String keyColumn) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SELECT setval(pg_get_serial_sequence('" + table + "', '" + keyColumn + "'), " +
+                    "(SELECT COALESCE(MAX(" + keyColumn + "), 0) + 1 FROM " + table + "), false)");
+        }
+    }
+
+    // Buffers CSV rows and hands them to the COPY stream in large chunks
+    private static class CopyWriter implements AutoCloseable {
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 1024);
+
+        CopyWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        StringBuilder row() {
+            return buffer;
+        }
+
+        void endRow() throws SQLException {
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_BYTES) {
+                flush();
+            }
+        }
+
+        long finish() throws SQLException {
+            flush();
+            return copyIn.endCopy();
+        }
+
+        // A COPY left open blocks the connection, so abandon it before rollback
+        @Override
+        public void close() throws SQLException {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package co.istad.gym.bench;
+
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.config.SchemaMigrator;
+import co.istad.gym.dao.MemberDAOImpl;
+import co.istad.gym.model.Member;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Member search latency (p50/p95/p99 from sample mode) with and without the
+// pg_trgm indexes, for the unbounded ILIKE search and the ranked, limited one.
+// Run against a local development database only: it tops the members table
+// up to the requested size with synthetic rows and drops/recreates indexes.
+//
+//   mvn package
+//   java -jar target/benchmarks.jar SearchBenchmark [-p members=1000000]
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    private static final String[] TRIGRAM_INDEXES = {
+            "idx_members_first_name_trgm", "idx_members_last_name_trgm",
+            "idx_members_email_trgm", "idx_members_phone_number_trgm"
+    };
+    private static final int SEARCH_LIMIT = 50;
+
+    @Param("1000000")
+    private int members;
+
+    @Param({"false", "true"})
+    private boolean trigramIndexes;
+
+    @Param({"rst4242", "Last98765", "user123456@", "5550042", "xyz-no-match"})
+    private String keyword;
+
+    private MemberDAOImpl memberDAO;
+
+    @Setup
+    public void setUp() throws Exception {
+        DatabaseConfig.testConnection();
+        SchemaMigrator.migrate();
+        BenchmarkDataset.seedMembers(members);
+
+        if (trigramIndexes) {
+            createTrigramIndexes();
+        } else {
+            dropTrigramIndexes();
+        }
+        BenchmarkDataset.analyze();
+
+        memberDAO = new MemberDAOImpl();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        // Leave the database with the indexes the migrations expect
+        if (!trigramIndexes) {
+            createTrigramIndexes();
+        }
+        DatabaseConfig.closeConnection();
+    }
+
+    @Benchmark
+    public List<Member> search() throws Exception {
+        return memberDAO.searchMembers(keyword);
+    }
+
+    @Benchmark
+    public List<Member> searchRanked() throws Exception {
+        return memberDAO.searchMembers(keyword, SEARCH_LIMIT);
+    }
+
+    private static void dropTrigramIndexes() throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String index : TRIGRAM_INDEXES) {
+                stmt.execute("DROP INDEX IF EXISTS " + index);
+            }
+        }
+    }
+
+    private static void createTrigramIndexes() throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String sql : SchemaMigrator.getMigrations().get(0).getStatements()) {
+                stmt.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package co.istad.gym.bulk;
+
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.dao.PlanDAOImpl;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+// Streams whole tables to and from CSV files with PostgreSQL COPY. Rows flow
+// straight between the file and the socket, so memory use does not grow with
+// the table size.
+public class BulkCopy {
+    public static final String MEMBER_COLUMNS = "member_id, first_name, last_name, email, phone_number, " +
+            "date_of_birth, emergency_contact, created_at, updated_at, is_deleted";
+    public static final String SUBSCRIPTION_COLUMNS = "subscription_id, member_id, plan_name, monthly_price, " +
+            "start_date, end_date, payment_status, created_at, updated_at, is_deleted";
+
+    private static final String CSV_OPTIONS = "WITH (FORMAT csv, HEADER true)";
+
+    public CopyResult exportMembers(Path file) throws Exception {
+        return exportTable("members", MEMBER_COLUMNS, "member_id", file);
+    }
+
+    public CopyResult exportSubscriptions(Path file) throws Exception {
+        return exportTable("subscriptions", SUBSCRIPTION_COLUMNS, "subscription_id", file);
+    }
+
+    // The file must carry the full column list (as written by export), ids included
+    public CopyResult importMembers(Path file) throws Exception {
+        return importTable("members", MEMBER_COLUMNS, "member_id", file);
+    }
+
+    public CopyResult importSubscriptions(Path file) throws Exception {
+        // Files carry plan names only; rows are linked to the plan catalog before commit
+        return importTable("subscriptions", SUBSCRIPTION_COLUMNS, "subscription_id", file,
+                PlanDAOImpl.LINK_SUBSCRIPTIONS_SQL);
+    }
+
+    // Runs a COPY ... FROM STDIN statement inside the caller's transaction
+    public static long copyIn(Connection conn, String copySql, Reader reader) throws Exception {
+        return copyManager(conn).copyIn(copySql, reader);
+    }
+
+    // Starts a COPY ... FROM STDIN that the caller feeds with writeToCopy
+    public static CopyIn openCopyIn(Connection conn, String copySql) throws SQLException {
+        return copyManager(conn).copyIn(copySql);
+    }
+
+    private CopyResult exportTable(String table, String columns, String keyColumn, Path file) throws Exception {
+        String sql = "COPY (SELECT " + columns + " FROM " + table + " ORDER BY " + keyColumn + ") TO STDOUT " + CSV_OPTIONS;
+        long startNanos = System.nanoTime();
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+
+            long rows = copyManager(conn).copyOut(sql, writer);
+            return new CopyResult(table, CopyResult.Direction.EXPORT, rows, System.nanoTime() - startNanos);
+        }
+    }
+
+    private CopyResult importTable(String table, String columns, String keyColumn, Path file,
+                                   String... afterLoad) throws Exception {
+        String sql = "COPY " + table + " (" + columns + ") FROM STDIN " + CSV_OPTIONS;
+        long startNanos = System.nanoTime();
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+
+            conn.setAutoCommit(false);
+            try {
+                long rows = copyManager(conn).copyIn(sql, reader);
+
+                // Explicit ids were loaded, so move the serial past them
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SELECT setval(pg_get_serial_sequence('" + table + "', '" + keyColumn + "'), " +
+                            "(SELECT COALESCE(MAX(" + keyColumn + "), 0) + 1 FROM " + table + "), false)");
+                    for (String statement : afterLoad) {
+                        stmt.execute(statement);
+                    }
+                }
+                conn.commit();
+                DAOFactory.notifyBulkChange();
+                return new CopyResult(table, CopyResult.Direction.IMPORT, rows, System.nanoTime() - startNanos);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static CopyManager copyManager(Connection conn) throws SQLException {
+        return conn.unwrap(PGConnection.class).getCopyAPI();
+    }
+}
@@ -0,0 +1,20 @@
+package co.istad.gym.bulk;
+
+public record CopyResult(String table, Direction direction, long rows, long elapsedNanos) {
+
+    public enum Direction { IMPORT, EXPORT }
+
+    public double elapsedSeconds() {
+        return elapsedNanos / 1_000_000_000.0;
+    }
+
+    public double rowsPerSecond() {
+        return elapsedNanos > 0 ? rows / elapsedSeconds() : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s: %d rows in %.2fs (%.0f rows/sec)",
+                direction, table, rows, elapsedSeconds(), rowsPerSecond());
+    }
+}
@@ -0,0 +1,274 @@
+package co.istad.gym.checkin;
+
+import co.istad.gym.dao.CheckInDAO;
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.dao.MemberListener;
+import co.istad.gym.dao.SubscriptionListener;
+import co.istad.gym.model.Subscription;
+import co.istad.gym.util.IntBitmap;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Bitmap of the members who may enter today: live members with a paid
+// subscription whose start and end dates cover today. A turnstile check is a
+// single bitmap probe. The bitmap is rebuilt every midnight, when
+// subscriptions start and end, and periodically in between; subscription
+// writes are followed as they happen.
+public class AccessControl implements MemberListener, SubscriptionListener {
+    private static final long REBUILD_INTERVAL_MINUTES = Long.getLong("gym.access.rebuildMinutes", 60L);
+
+    private static final AccessControl INSTANCE = new AccessControl(DAOFactory.getCheckInDAO());
+
+    private final CheckInDAO checkInDAO;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ScheduledExecutorService scheduler;
+
+    // Guarded by lock
+    private IntBitmap allowed = new IntBitmap();
+    private boolean ready;
+    private List<Runnable> pendingDuringBuild;
+    // member_id -> events for that member seen while it is being recomputed
+    private final Map<Integer, List<Runnable>> pendingDuringRecompute = new HashMap<>();
+
+    AccessControl(CheckInDAO checkInDAO) {
+        this.checkInDAO = checkInDAO;
+    }
+
+    public static AccessControl getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        DAOFactory.addMemberListener(this);
+        DAOFactory.addSubscriptionListener(this);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gym-access-control");
+            t.setDaemon(true);
+            return t;
+        });
+        // The periodic reload corrects anything the incremental updates missed
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, 0, REBUILD_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        scheduleRebuild();
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return allowed.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Falls back to the database until the bitmap has been loaded
+    public boolean hasAccess(int memberId) throws Exception {
+        lock.readLock().lock();
+        try {
+            if (ready) {
+                return allowed.contains(memberId);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return checkInDAO.hasAccess(memberId);
+    }
+
+    public void rebuild() throws Exception {
+        lock.writeLock().lock();
+        try {
+            pendingDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IntBitmap fresh = new IntBitmap();
+        try {
+            for (int memberId : checkInDAO.getMemberIdsWithAccess()) {
+                fresh.add(memberId);
+            }
+        } catch (Exception | Error e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Writes that raced with the load are replayed on top of the new bitmap
+            List<Runnable> pending = pendingDuringBuild;
+            pendingDuringBuild = null;
+            allowed = fresh;
+            for (Runnable change : pending) {
+                change.run();
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // MEMBER EVENTS
+    @Override
+    public void onMemberRemoved(int memberId) {
+        apply(memberId, () -> allowed.remove(memberId));
+    }
+
+    @Override
+    public void onBulkChange() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+        }
+        if (current != null) {
+            current.execute(this::rebuildQuietly);
+        }
+    }
+
+    // SUBSCRIPTION EVENTS
+    @Override
+    public void onSubscriptionAdded(Subscription subscription) {
+        if (subscription.isActive()) {
+            apply(subscription.getMemberId(), () -> allowed.add(subscription.getMemberId()));
+        }
+    }
+
+    @Override
+    public void onSubscriptionChanged(Subscription before, Subscription after) {
+        if (after.isActive()) {
+            apply(after.getMemberId(), () -> allowed.add(after.getMemberId()));
+        } else if (before.isActive()) {
+            recomputeLater(before.getMemberId());
+        }
+    }
+
+    @Override
+    public void onSubscriptionRemoved(Subscription before) {
+        if (before.isActive()) {
+            recomputeLater(before.getMemberId());
+        }
+    }
+
+    private void apply(int memberId, Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingDuringBuild != null) {
+                pendingDuringBuild.add(change);
+            }
+            List<Runnable> recompute = pendingDuringRecompute.get(memberId);
+            if (recompute != null) {
+                recompute.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Another subscription may still cover the member, which only the database knows
+    private void recomputeLater(int memberId) {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+        }
+        if (current != null) {
+            current.execute(() -> recompute(memberId));
+        }
+    }
+
+    // Resets one member's bit from the database, then replays that member's events
+    // that arrived during the read, the same way rebuild() does for everyone.
+    // A failed read leaves the bit as it was.
+    private void recompute(int memberId) {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRecompute.put(memberId, new ArrayList<>());
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        boolean access;
+        try {
+            access = checkInDAO.hasAccess(memberId);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRecompute.remove(memberId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.err.println("Error recomputing member access: " + e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<Runnable> changes = new ArrayList<>();
+            changes.add(access ? () -> allowed.add(memberId) : () -> allowed.remove(memberId));
+            changes.addAll(pendingDuringRecompute.remove(memberId));
+            for (Runnable change : changes) {
+                change.run();
+                if (pendingDuringBuild != null) {
+                    pendingDuringBuild.add(change);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private synchronized void scheduleRebuild() {
+        if (scheduler == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextMidnight = now.toLocalDate().plusDays(1).atStartOfDay();
+        long delayMillis = Duration.between(now, nextMidnight).toMillis() + 1000;
+        scheduler.schedule(() -> {
+            try {
+                rebuildQuietly();
+            } finally {
+                scheduleRebuild();
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            System.err.println("Error loading member access: " + e.getMessage());
+        }
+    }
+}
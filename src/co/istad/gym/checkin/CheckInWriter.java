@@ -0,0 +1,232 @@
+package co.istad.gym.checkin;
+
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.dao.CheckInDAO;
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.model.CheckIn;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Takes check-ins off the turnstile path. Any number of threads enqueue into a
+// bounded queue and one writer thread drains it, committing a group of
+// check-ins per transaction: a batch is written once it is full or once its
+// oldest entry has waited the flush interval. A full queue makes submit() wait
+// briefly and then refuse, so a stalled database cannot exhaust memory. On
+// stop, or when the JVM shuts down, the writer drains the queue before exiting.
+public class CheckInWriter {
+    private static final int QUEUE_CAPACITY = Integer.getInteger("gym.checkin.queueCapacity", 10000);
+    private static final int BATCH_SIZE = Integer.getInteger("gym.checkin.batchSize", DatabaseConfig.BATCH_SIZE);
+    private static final long FLUSH_INTERVAL_MS = Long.getLong("gym.checkin.flushMs", 200L);
+    private static final long OFFER_TIMEOUT_MS = Long.getLong("gym.checkin.offerTimeoutMs", 50L);
+    private static final long RETRY_DELAY_MS = Long.getLong("gym.checkin.retryMs", 1000L);
+    private static final long SHUTDOWN_TIMEOUT_MS = Long.getLong("gym.checkin.shutdownTimeoutMs", 5000L);
+
+    private static final CheckInWriter INSTANCE = new CheckInWriter(DAOFactory.getCheckInDAO());
+
+    public record Stats(long accepted, long written, long rejected, long batches, long failedWrites,
+                        int queued, int capacity, int largestBatch, double lastCommitMillis,
+                        double writtenPerSecond) {
+        public double averageBatch() {
+            return batches == 0 ? 0 : (double) written / batches;
+        }
+    }
+
+    private final CheckInDAO checkInDAO;
+    private final BlockingQueue<CheckIn> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Object progress = new Object();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+    private volatile int largestBatch;
+    private volatile long lastCommitNanos;
+    private volatile long startedAtNanos;
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private Thread shutdownHook;
+
+    CheckInWriter(CheckInDAO checkInDAO) {
+        this.checkInDAO = checkInDAO;
+    }
+
+    public static CheckInWriter getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (writerThread != null) {
+            return;
+        }
+        running = true;
+        startedAtNanos = System.nanoTime();
+        writerThread = new Thread(this::runWriter, "gym-checkin-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        // Covers Ctrl+C and SIGTERM; the menu's Exit calls stop() itself
+        shutdownHook = new Thread(this::stop, "gym-checkin-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    // Stops accepting check-ins and waits for the queued ones to be written
+    public synchronized void stop() {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            writerThread.interrupt();
+        }
+        writerThread = null;
+
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down
+            }
+        }
+        shutdownHook = null;
+    }
+
+    // Returns false if the check-in was not queued because the writer is stopped or the queue stayed full
+    public boolean submit(CheckIn checkIn) {
+        try {
+            if (running && queue.offer(checkIn, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                // stop() may have begun during the offer. If the entry is still queued
+                // the writer may already be gone, so take it back; if it is not, the
+                // writer has it and will write it.
+                if (running || !queue.remove(checkIn)) {
+                    accepted.increment();
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    // Waits until everything accepted so far has been written, or gives up after the shutdown timeout
+    public boolean flush() throws InterruptedException {
+        long target = accepted.sum();
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MS;
+        synchronized (progress) {
+            while (written.sum() < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (!running || remaining <= 0) {
+                    return false;
+                }
+                progress.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    public Stats getStats() {
+        long elapsedNanos = System.nanoTime() - startedAtNanos;
+        long writtenCount = written.sum();
+        double perSecond = startedAtNanos == 0 || elapsedNanos <= 0 ? 0 : writtenCount * 1_000_000_000.0 / elapsedNanos;
+        return new Stats(accepted.sum(), writtenCount, rejected.sum(), batches.sum(), failedWrites.sum(),
+                queue.size(), QUEUE_CAPACITY, largestBatch, lastCommitNanos / 1_000_000.0, perSecond);
+    }
+
+    private void runWriter() {
+        List<CheckIn> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (running || !queue.isEmpty() || !batch.isEmpty()) {
+                // A batch that failed to write is retried before anything new is taken
+                if (batch.isEmpty()) {
+                    collect(batch);
+                    if (batch.isEmpty()) {
+                        continue;
+                    }
+                }
+                if (!write(batch)) {
+                    if (!running) {
+                        break;
+                    }
+                    Thread.sleep(RETRY_DELAY_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            int unwritten = batch.size() + queue.size();
+            if (unwritten > 0) {
+                System.err.println("Check-in writer stopped with " + unwritten + " check-ins unwritten");
+            }
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+        }
+    }
+
+    // Fills the batch until it is full or its first entry has waited the flush interval
+    private void collect(List<CheckIn> batch) throws InterruptedException {
+        CheckIn first = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS);
+
+        while (batch.size() < BATCH_SIZE) {
+            queue.drainTo(batch, BATCH_SIZE - batch.size());
+            long remaining = deadline - System.nanoTime();
+            // While stopping there is no point waiting for more
+            if (batch.size() >= BATCH_SIZE || !running || remaining <= 0) {
+                break;
+            }
+            CheckIn next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    // Removes the committed check-ins from the batch; returns false if some were not written
+    private boolean write(List<CheckIn> batch) {
+        int size = batch.size();
+        long start = System.nanoTime();
+        int committed;
+        try {
+            committed = checkInDAO.addCheckIns(batch);
+        } catch (Exception e) {
+            System.err.println("Error writing check-ins: " + e.getMessage());
+            committed = 0;
+        }
+        lastCommitNanos = System.nanoTime() - start;
+
+        if (committed > 0) {
+            batch.subList(0, committed).clear();
+            written.add(committed);
+            batches.increment();
+            if (committed > largestBatch) {
+                largestBatch = committed;
+            }
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+        }
+        if (committed < size) {
+            failedWrites.increment();
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,375 @@
+package co.istad.gym.config;
+
+import co.istad.gym.metrics.SlowQueryLog;
+import co.istad.gym.metrics.StatementTracer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded JDBC connection pool. Borrowed connections are proxies whose close()
+// hands the physical connection back to the pool instead of closing it. The
+// statements they create are traced for the SlowQueryLog unless it is disabled.
+public class ConnectionPool {
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    private int totalConnections;
+    private int pendingCreates;
+    private boolean closed;
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long maxWaitMillis, long idleTimeoutMillis, long validationIntervalMillis,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.statementCacheSize = statementCacheSize;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gym-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+
+        while (true) {
+            PooledConnection pooled = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    pooled = idle.pollFirst();
+                    if (pooled != null) {
+                        break;
+                    }
+                    if (totalConnections + pendingCreates < maxSize) {
+                        pendingCreates++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLTransientConnectionException("Timed out after " + maxWaitMillis +
+                                "ms waiting for a connection (active=" + totalConnections + ", max=" + maxSize + ")");
+                    }
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a connection", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                return createConnection().borrow();
+            }
+            if (validate(pooled)) {
+                return pooled.borrow();
+            }
+            discard(pooled);
+        }
+    }
+
+    // Opens connections until the pool holds at least minSize of them.
+    public void warmUp() throws SQLException {
+        List<PooledConnection> created = new ArrayList<>();
+        try {
+            while (true) {
+                lock.lock();
+                try {
+                    if (closed || totalConnections + pendingCreates >= minSize) {
+                        break;
+                    }
+                    pendingCreates++;
+                } finally {
+                    lock.unlock();
+                }
+                created.add(createConnection());
+            }
+        } finally {
+            for (PooledConnection pooled : created) {
+                release(pooled);
+            }
+        }
+    }
+
+    public void shutdown() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        evictor.shutdownNow();
+        for (PooledConnection pooled : toClose) {
+            discard(pooled);
+        }
+    }
+
+    public int getTotalConnections() {
+        lock.lock();
+        try {
+            return totalConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdleConnections() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveConnections() {
+        lock.lock();
+        try {
+            return totalConnections - idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        try {
+            Connection raw = DriverManager.getConnection(url, user, password);
+            lock.lock();
+            try {
+                pendingCreates--;
+                totalConnections++;
+            } finally {
+                lock.unlock();
+            }
+            return new PooledConnection(raw);
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                pendingCreates--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean validate(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsed < validationIntervalMillis) {
+            return true;
+        }
+        try {
+            return pooled.raw.isValid(5);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        boolean healthy = reset(pooled.raw);
+
+        lock.lock();
+        try {
+            if (healthy && !closed) {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.addFirst(pooled);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(pooled);
+    }
+
+    // Puts a returned connection back into the state a fresh borrower expects.
+    private boolean reset(Connection raw) {
+        try {
+            if (raw.isClosed()) {
+                return false;
+            }
+            if (!raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            raw.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        pooled.statementCache.clear();
+        try {
+            pooled.raw.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+        lock.lock();
+        try {
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictIdle() {
+        List<PooledConnection> expired = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            // Oldest idle connections sit at the tail of the deque
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && totalConnections - expired.size() > minSize) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.lastUsed < idleTimeoutMillis) {
+                    break;
+                }
+                it.remove();
+                expired.add(pooled);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pooled : expired) {
+            discard(pooled);
+        }
+    }
+
+    private class PooledConnection {
+        private final Connection raw;
+        private final StatementCache statementCache = new StatementCache(statementCacheSize);
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
+
+        Connection borrow() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new BorrowedHandler(this));
+        }
+    }
+
+    private class BorrowedHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        BorrowedHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.raw.isClosed();
+                case "prepareStatement":
+                    if (!returned && args.length == 1) {
+                        return traced(pooled.statementCache.prepare(pooled.raw, (Connection) proxy, (String) args[0]),
+                                (String) args[0]);
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.raw + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            Object result;
+            try {
+                result = method.invoke(pooled.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // createStatement, prepareStatement with key options, prepareCall
+            if (result instanceof Statement statement) {
+                return traced(statement, args != null && args.length > 0 && args[0] instanceof String sql ? sql : null);
+            }
+            return result;
+        }
+
+        private Statement traced(Statement statement, String sql) {
+            return SlowQueryLog.ENABLED ? StatementTracer.trace(statement, sql) : statement;
+        }
+    }
+}
@@ -1,21 +1,83 @@
 package co.istad.gym.config;
 
+import co.istad.gym.metrics.DaoMetrics;
 import java.sql.Connection;
-import java.sql.DriverManager;
 
 public class  DatabaseConfig {
     private static final String URL = "jdbc:postgresql://localhost:5432/postgres";
     private static final String USER = "postgres";
     private static final String PASSWORD = "qwer";
 
+    // Pool settings, overridable with -Dgym.pool.<name>=<value>
+    private static final int POOL_MIN_SIZE = Integer.getInteger("gym.pool.minSize", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("gym.pool.maxSize", 10);
+    private static final long POOL_MAX_WAIT_MS = Long.getLong("gym.pool.maxWaitMs", 5000L);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("gym.pool.idleTimeoutMs", 300000L);
+    private static final long POOL_VALIDATION_INTERVAL_MS = Long.getLong("gym.pool.validationIntervalMs", 30000L);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("gym.pool.statementCacheSize", 64);
+
+    // Rows per JDBC batch (and per transaction) for the bulk insert methods
+    public static final int BATCH_SIZE = Integer.getInteger("gym.batch.size", 500);
+
+    // Rows per round trip when streaming through a server-side cursor
+    public static final int FETCH_SIZE = Integer.getInteger("gym.fetch.size", 1000);
+
+    private static volatile ConnectionPool pool;
+
     public static Connection getConnection() throws Exception {
+        if (!DaoMetrics.ENABLED) {
+            return getPool().getConnection();
+        }
+        long start = System.nanoTime();
+        Connection conn = getPool().getConnection();
+        DaoMetrics.recordAcquire(System.nanoTime() - start);
+        return conn;
+    }
+
+    // Configured upper bound, available without creating the pool
+    public static int getPoolMaxSize() {
+        return POOL_MAX_SIZE;
+    }
 
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+    public static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConfig.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(URL, USER, PASSWORD,
+                            POOL_MIN_SIZE, POOL_MAX_SIZE, POOL_MAX_WAIT_MS,
+                            POOL_IDLE_TIMEOUT_MS, POOL_VALIDATION_INTERVAL_MS, STATEMENT_CACHE_SIZE);
+                    pool = current;
+                }
+            }
+        }
+        return current;
     }
 
     public static void testConnection() {
+        try {
+            getPool().warmUp();
+            try (Connection conn = getConnection()) {
+                if (!conn.isValid(5)) {
+                    System.err.println("Database connection is not valid!");
+                    return;
+                }
+            }
+            System.out.println("Connected to database (" + getPool().getTotalConnections() + " pooled connections)");
+        } catch (Exception e) {
+            System.err.println("Error connecting to database: " + e.getMessage());
+        }
     }
 
     public static void closeConnection() {
+        ConnectionPool current;
+        synchronized (DatabaseConfig.class) {
+            current = pool;
+            pool = null;
+        }
+        if (current != null) {
+            current.shutdown();
+        }
     }
 }
@@ -0,0 +1,140 @@
+package co.istad.gym.config;
+
+import co.istad.gym.dao.PlanDAOImpl;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Applies versioned schema changes once, in order, recording each in
+// schema_migrations. New migrations are appended to MIGRATIONS.
+public class SchemaMigrator {
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Trigram indexes for member search",
+                    "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+                    "CREATE INDEX IF NOT EXISTS idx_members_first_name_trgm ON members " +
+                            "USING gin (first_name gin_trgm_ops) WHERE is_deleted = false",
+                    "CREATE INDEX IF NOT EXISTS idx_members_last_name_trgm ON members " +
+                            "USING gin (last_name gin_trgm_ops) WHERE is_deleted = false",
+                    "CREATE INDEX IF NOT EXISTS idx_members_email_trgm ON members " +
+                            "USING gin (email gin_trgm_ops) WHERE is_deleted = false",
+                    "CREATE INDEX IF NOT EXISTS idx_members_phone_number_trgm ON members " +
+                            "USING gin (phone_number gin_trgm_ops) WHERE is_deleted = false",
+                    "CREATE INDEX IF NOT EXISTS idx_subscriptions_member_id ON subscriptions (member_id)"),
+            new Migration(2, "Paid subscriptions by creation time for revenue periods",
+                    "CREATE INDEX IF NOT EXISTS idx_subscriptions_paid_created_at ON subscriptions " +
+                            "(created_at) INCLUDE (monthly_price) " +
+                            "WHERE is_deleted = false AND payment_status = 'PAID'"),
+            new Migration(3, "Plan catalog and subscriptions.plan_id",
+                    "CREATE TABLE IF NOT EXISTS plans (" +
+                            "plan_id SERIAL PRIMARY KEY, " +
+                            "plan_name VARCHAR(100) NOT NULL UNIQUE, " +
+                            "price DECIMAL(10, 2) NOT NULL CHECK (price >= 0), " +
+                            "duration_months INTEGER NOT NULL CHECK (duration_months > 0), " +
+                            "is_active BOOLEAN NOT NULL DEFAULT true, " +
+                            "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                            "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)",
+                    "INSERT INTO plans (plan_name, price, duration_months) VALUES " +
+                            "('Basic Monthly', 29.99, 1), ('Premium Monthly', 59.99, 1), ('Gold Annual', 499.99, 12) " +
+                            "ON CONFLICT (plan_name) DO NOTHING",
+                    "ALTER TABLE subscriptions ADD COLUMN IF NOT EXISTS plan_id INTEGER REFERENCES plans (plan_id)",
+                    PlanDAOImpl.LINK_SUBSCRIPTIONS_SQL[0],
+                    PlanDAOImpl.LINK_SUBSCRIPTIONS_SQL[1],
+                    "CREATE INDEX IF NOT EXISTS idx_subscriptions_plan_id ON subscriptions (plan_id)"),
+            new Migration(4, "Paid subscriptions by member and end date for active-member checks",
+                    "CREATE INDEX IF NOT EXISTS idx_subscriptions_paid_member_end ON subscriptions " +
+                            "(member_id, end_date) WHERE is_deleted = false AND payment_status = 'PAID'"),
+            // Append-only; member_id has no foreign key so swipes of unknown cards are still logged
+            new Migration(5, "Check-in log",
+                    "CREATE TABLE IF NOT EXISTS check_ins (" +
+                            "check_in_id BIGSERIAL PRIMARY KEY, " +
+                            "member_id INTEGER NOT NULL, " +
+                            "check_in_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                            "granted BOOLEAN NOT NULL)",
+                    "CREATE INDEX IF NOT EXISTS idx_check_ins_time ON check_ins (check_in_time)",
+                    "CREATE INDEX IF NOT EXISTS idx_check_ins_member_time ON check_ins (member_id, check_in_time)")
+    );
+
+    private SchemaMigrator() {}
+
+    public static void migrate() {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                        "version INTEGER PRIMARY KEY, " +
+                        "description VARCHAR(200) NOT NULL, " +
+                        "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+            }
+
+            List<Integer> applied = appliedVersions(conn);
+            for (Migration migration : MIGRATIONS) {
+                if (!applied.contains(migration.version)) {
+                    apply(conn, migration);
+                }
+            }
+
+        } catch (Exception e) {
+            System.err.println("Error migrating schema: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public static List<Migration> getMigrations() {
+        return MIGRATIONS;
+    }
+
+    private static List<Integer> appliedVersions(Connection conn) throws SQLException {
+        List<Integer> versions = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_migrations ORDER BY version")) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : migration.statements) {
+                    stmt.execute(sql);
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO schema_migrations (version, description) VALUES (?, ?)")) {
+                pstmt.setInt(1, migration.version);
+                pstmt.setString(2, migration.description);
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+            System.out.println("Applied migration " + migration.version + ": " + migration.description);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final String[] statements;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        public String[] getStatements() { return statements.clone(); }
+    }
+}
@@ -0,0 +1,165 @@
+package co.istad.gym.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-connection LRU cache of prepared statements keyed by SQL text. Reusing the
+// same PreparedStatement lets the driver switch to a server-side prepared plan.
+public class StatementCache {
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong EVICTIONS = new AtomicLong();
+
+    private final int maxSize;
+    private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    public StatementCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    // Checks a statement out of the cache; closing the returned handle checks it back in.
+    synchronized PreparedStatement prepare(Connection raw, Connection owner, String sql) throws SQLException {
+        if (maxSize <= 0) {
+            return raw.prepareStatement(sql);
+        }
+
+        PreparedStatement statement = statements.remove(sql);
+        if (statement != null && !statement.isClosed()) {
+            HITS.incrementAndGet();
+        } else {
+            MISSES.incrementAndGet();
+            statement = raw.prepareStatement(sql);
+        }
+
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new CachedStatementHandler(sql, statement, owner));
+    }
+
+    synchronized void clear() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+    }
+
+    private synchronized void checkIn(String sql, PreparedStatement statement) {
+        try {
+            ResultSet rs = statement.getResultSet();
+            if (rs != null) {
+                rs.close();
+            }
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+            // Settings a caller changed must not follow the statement to its next user
+            if (statement.getFetchSize() != 0) {
+                statement.setFetchSize(0);
+            }
+            if (statement.getMaxRows() != 0) {
+                statement.setMaxRows(0);
+            }
+            if (statement.getQueryTimeout() != 0) {
+                statement.setQueryTimeout(0);
+            }
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+
+        PreparedStatement previous = statements.put(sql, statement);
+        if (previous != null && previous != statement) {
+            closeQuietly(previous);
+        }
+
+        if (statements.size() > maxSize) {
+            List<PreparedStatement> evicted = new ArrayList<>();
+            Iterator<Map.Entry<String, PreparedStatement>> it = statements.entrySet().iterator();
+            while (statements.size() > maxSize && it.hasNext()) {
+                evicted.add(it.next().getValue());
+                it.remove();
+            }
+            EVICTIONS.addAndGet(evicted.size());
+            for (PreparedStatement stale : evicted) {
+                closeQuietly(stale);
+            }
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    // STATISTICS
+    public static long getHits() { return HITS.get(); }
+    public static long getMisses() { return MISSES.get(); }
+    public static long getEvictions() { return EVICTIONS.get(); }
+
+    public static double getHitRatio() {
+        long hits = HITS.get();
+        long total = hits + MISSES.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private class CachedStatementHandler implements InvocationHandler {
+        private final String sql;
+        private final PreparedStatement statement;
+        private final Connection owner;
+        private boolean returned;
+
+        CachedStatementHandler(String sql, PreparedStatement statement, Connection owner) {
+            this.sql = sql;
+            this.statement = statement;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        checkIn(sql, statement);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + sql + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Statement has already been closed");
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
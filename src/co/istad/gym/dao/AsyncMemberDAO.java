@@ -0,0 +1,81 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.Member;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking facade over a MemberDAO: every call runs on the DaoExecutor and
+// completes the returned future. streamAllMembers is left out on purpose, as a
+// cursor stream holds its connection until the consumer closes it.
+public class AsyncMemberDAO {
+    private final MemberDAO delegate;
+    private final DaoExecutor executor;
+
+    public AsyncMemberDAO(MemberDAO delegate, DaoExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    // CREATE
+    public CompletableFuture<Integer> addMember(Member member) {
+        return executor.submit(() -> delegate.addMember(member));
+    }
+
+    public CompletableFuture<List<Integer>> addMembers(List<Member> members) {
+        return executor.submit(() -> delegate.addMembers(members));
+    }
+
+    // READ
+    public CompletableFuture<List<Member>> getAllMembers() {
+        return executor.submit(delegate::getAllMembers);
+    }
+
+    public CompletableFuture<List<Member>> getMembersPage(int afterMemberId, int pageSize) {
+        return executor.submit(() -> delegate.getMembersPage(afterMemberId, pageSize));
+    }
+
+    public CompletableFuture<Optional<Member>> getMemberById(int memberId) {
+        return executor.submit(() -> delegate.getMemberById(memberId));
+    }
+
+    public CompletableFuture<Optional<Member>> getMemberByEmail(String email) {
+        return executor.submit(() -> delegate.getMemberByEmail(email));
+    }
+
+    public CompletableFuture<List<Member>> getActiveMembers() {
+        return executor.submit(delegate::getActiveMembers);
+    }
+
+    // UPDATE
+    public CompletableFuture<Boolean> updateMember(Member member) {
+        return executor.submit(() -> delegate.updateMember(member));
+    }
+
+    // DELETE
+    public CompletableFuture<Boolean> softDeleteMember(int memberId) {
+        return executor.submit(() -> delegate.softDeleteMember(memberId));
+    }
+
+    // SEARCH
+    public CompletableFuture<List<Member>> searchMembers(String keyword) {
+        return executor.submit(() -> delegate.searchMembers(keyword));
+    }
+
+    public CompletableFuture<List<Member>> searchMembers(String keyword, int limit) {
+        return executor.submit(() -> delegate.searchMembers(keyword, limit));
+    }
+
+    // STATISTICS
+    public CompletableFuture<Integer> countMembers() {
+        return executor.submit(delegate::countMembers);
+    }
+
+    public CompletableFuture<Integer> countActiveMembers() {
+        return executor.submit(delegate::countActiveMembers);
+    }
+
+    public MemberDAO getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,133 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.BulkUpdateResult;
+import co.istad.gym.model.PeriodRevenue;
+import co.istad.gym.model.PlanRevenue;
+import co.istad.gym.model.Subscription;
+import co.istad.gym.model.SubscriptionChange;
+import co.istad.gym.model.TimeBucket;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking facade over a SubscriptionDAO, see AsyncMemberDAO.
+public class AsyncSubscriptionDAO {
+    private final SubscriptionDAO delegate;
+    private final DaoExecutor executor;
+
+    public AsyncSubscriptionDAO(SubscriptionDAO delegate, DaoExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    // CREATE
+    public CompletableFuture<Integer> addSubscription(Subscription subscription) {
+        return executor.submit(() -> delegate.addSubscription(subscription));
+    }
+
+    public CompletableFuture<List<Integer>> addSubscriptions(List<Subscription> subscriptions) {
+        return executor.submit(() -> delegate.addSubscriptions(subscriptions));
+    }
+
+    // READ
+    public CompletableFuture<List<Subscription>> getAllSubscriptions() {
+        return executor.submit(delegate::getAllSubscriptions);
+    }
+
+    public CompletableFuture<List<Subscription>> getSubscriptionsPage(int afterSubscriptionId, int pageSize) {
+        return executor.submit(() -> delegate.getSubscriptionsPage(afterSubscriptionId, pageSize));
+    }
+
+    public CompletableFuture<Optional<Subscription>> getSubscriptionById(int subscriptionId) {
+        return executor.submit(() -> delegate.getSubscriptionById(subscriptionId));
+    }
+
+    public CompletableFuture<List<Subscription>> getSubscriptionsByIds(List<Integer> subscriptionIds) {
+        return executor.submit(() -> delegate.getSubscriptionsByIds(subscriptionIds));
+    }
+
+    public CompletableFuture<List<Subscription>> getSubscriptionsByMemberId(int memberId) {
+        return executor.submit(() -> delegate.getSubscriptionsByMemberId(memberId));
+    }
+
+    public CompletableFuture<List<Subscription>> getActiveSubscriptions() {
+        return executor.submit(delegate::getActiveSubscriptions);
+    }
+
+    public CompletableFuture<List<Subscription>> getExpiringSubscriptions(int daysBefore) {
+        return executor.submit(() -> delegate.getExpiringSubscriptions(daysBefore));
+    }
+
+    // UPDATE
+    public CompletableFuture<Boolean> updateSubscription(Subscription subscription) {
+        return executor.submit(() -> delegate.updateSubscription(subscription));
+    }
+
+    public CompletableFuture<Boolean> renewSubscription(int subscriptionId, int days) {
+        return executor.submit(() -> delegate.renewSubscription(subscriptionId, days));
+    }
+
+    public CompletableFuture<Boolean> updatePaymentStatus(int subscriptionId, String status) {
+        return executor.submit(() -> delegate.updatePaymentStatus(subscriptionId, status));
+    }
+
+    public CompletableFuture<BulkUpdateResult> renewSubscriptions(List<Integer> subscriptionIds, int days, boolean markPaid) {
+        return executor.submit(() -> delegate.renewSubscriptions(subscriptionIds, days, markPaid));
+    }
+
+    public CompletableFuture<BulkUpdateResult> updatePaymentStatuses(List<Integer> subscriptionIds, String status) {
+        return executor.submit(() -> delegate.updatePaymentStatuses(subscriptionIds, status));
+    }
+
+    public CompletableFuture<Optional<SubscriptionChange>> updateSubscriptionReturning(Subscription subscription) {
+        return executor.submit(() -> delegate.updateSubscriptionReturning(subscription));
+    }
+
+    public CompletableFuture<Optional<SubscriptionChange>> renewSubscriptionReturning(int subscriptionId, int days) {
+        return executor.submit(() -> delegate.renewSubscriptionReturning(subscriptionId, days));
+    }
+
+    public CompletableFuture<Optional<SubscriptionChange>> updatePaymentStatusReturning(int subscriptionId, String status) {
+        return executor.submit(() -> delegate.updatePaymentStatusReturning(subscriptionId, status));
+    }
+
+    // DELETE
+    public CompletableFuture<Boolean> softDeleteSubscription(int subscriptionId) {
+        return executor.submit(() -> delegate.softDeleteSubscription(subscriptionId));
+    }
+
+    public CompletableFuture<Optional<SubscriptionChange>> softDeleteSubscriptionReturning(int subscriptionId) {
+        return executor.submit(() -> delegate.softDeleteSubscriptionReturning(subscriptionId));
+    }
+
+    // SEARCH
+    public CompletableFuture<List<Subscription>> searchSubscriptions(String memberName, String paymentStatus, int planId) {
+        return executor.submit(() -> delegate.searchSubscriptions(memberName, paymentStatus, planId));
+    }
+
+    // STATISTICS
+    public CompletableFuture<Integer> countSubscriptions() {
+        return executor.submit(delegate::countSubscriptions);
+    }
+
+    public CompletableFuture<Integer> countActiveSubscriptions() {
+        return executor.submit(delegate::countActiveSubscriptions);
+    }
+
+    public CompletableFuture<Double> calculateMonthlyRevenue() {
+        return executor.submit(delegate::calculateMonthlyRevenue);
+    }
+
+    public CompletableFuture<List<PlanRevenue>> getRevenueByPlan() {
+        return executor.submit(delegate::getRevenueByPlan);
+    }
+
+    public CompletableFuture<List<PeriodRevenue>> getRevenueByPeriod(TimeBucket bucket, LocalDate from, LocalDate to) {
+        return executor.submit(() -> delegate.getRevenueByPeriod(bucket, from, to));
+    }
+
+    public SubscriptionDAO getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,251 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.Member;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// MemberDAO decorator that keeps recently read members in memory, indexed by id
+// and by lower-cased email. Writes go straight to the delegate and invalidate.
+public class CachingMemberDAO implements MemberDAO {
+    private final MemberDAO delegate;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<Integer, CacheEntry> byId = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Integer> idByEmail = new HashMap<>();
+    // Bumped by every invalidation; a read that started before one must not be cached
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CachingMemberDAO(MemberDAO delegate, int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    // CREATE
+    @Override
+    public int addMember(Member member) throws Exception {
+        int memberId = delegate.addMember(member);
+        invalidateEmail(member.getEmail());
+        return memberId;
+    }
+
+    @Override
+    public List<Integer> addMembers(List<Member> members) throws Exception {
+        List<Integer> memberIds = delegate.addMembers(members);
+        for (Member member : members) {
+            invalidateEmail(member.getEmail());
+        }
+        return memberIds;
+    }
+
+    // READ
+    @Override
+    public List<Member> getAllMembers() throws Exception {
+        return delegate.getAllMembers();
+    }
+
+    @Override
+    public List<Member> getMembersPage(int afterMemberId, int pageSize) throws Exception {
+        return delegate.getMembersPage(afterMemberId, pageSize);
+    }
+
+    @Override
+    public Stream<Member> streamAllMembers() throws Exception {
+        return delegate.streamAllMembers();
+    }
+
+    @Override
+    public Optional<Member> getMemberById(int memberId) throws Exception {
+        Member cached = lookup(memberId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(new Member(cached));
+        }
+
+        misses.incrementAndGet();
+        long readGeneration = currentGeneration();
+        Optional<Member> member = delegate.getMemberById(memberId);
+        member.ifPresent(m -> put(m, readGeneration));
+        return member.map(Member::new);
+    }
+
+    @Override
+    public Optional<Member> getMemberByEmail(String email) throws Exception {
+        Member cached = null;
+        if (email != null) {
+            synchronized (this) {
+                Integer memberId = idByEmail.get(email.toLowerCase(Locale.ROOT));
+                cached = memberId != null ? lookup(memberId) : null;
+            }
+        }
+        // The database compares emails exactly, so only an exact match is a hit
+        if (cached != null && email.equals(cached.getEmail())) {
+            hits.incrementAndGet();
+            return Optional.of(new Member(cached));
+        }
+
+        misses.incrementAndGet();
+        long readGeneration = currentGeneration();
+        Optional<Member> member = delegate.getMemberByEmail(email);
+        member.ifPresent(m -> put(m, readGeneration));
+        return member.map(Member::new);
+    }
+
+    @Override
+    public List<Member> getActiveMembers() throws Exception {
+        return delegate.getActiveMembers();
+    }
+
+    // UPDATE
+    @Override
+    public boolean updateMember(Member member) throws Exception {
+        try {
+            return delegate.updateMember(member);
+        } finally {
+            invalidate(member.getMemberId());
+            invalidateEmail(member.getEmail());
+        }
+    }
+
+    // DELETE
+    @Override
+    public boolean softDeleteMember(int memberId) throws Exception {
+        try {
+            return delegate.softDeleteMember(memberId);
+        } finally {
+            invalidate(memberId);
+        }
+    }
+
+    // SEARCH
+    @Override
+    public List<Member> searchMembers(String keyword) throws Exception {
+        return delegate.searchMembers(keyword);
+    }
+
+    @Override
+    public List<Member> searchMembers(String keyword, int limit) throws Exception {
+        return delegate.searchMembers(keyword, limit);
+    }
+
+    // STATISTICS
+    @Override
+    public int countMembers() throws Exception {
+        return delegate.countMembers();
+    }
+
+    @Override
+    public int countActiveMembers() throws Exception {
+        return delegate.countActiveMembers();
+    }
+
+    // CACHE
+    public synchronized void invalidate(int memberId) {
+        generation++;
+        CacheEntry removed = byId.remove(memberId);
+        if (removed != null) {
+            removeEmailIndex(removed.member);
+        }
+    }
+
+    public synchronized void invalidateEmail(String email) {
+        if (email == null) {
+            return;
+        }
+        generation++;
+        Integer memberId = idByEmail.remove(email.toLowerCase(Locale.ROOT));
+        if (memberId != null) {
+            byId.remove(memberId);
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        byId.clear();
+        idByEmail.clear();
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private synchronized Member lookup(int memberId) {
+        CacheEntry entry = byId.get(memberId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            byId.remove(memberId);
+            removeEmailIndex(entry.member);
+            return null;
+        }
+        return entry.member;
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    // Skipped when a write invalidated anything since the read began, as the row may predate it
+    private synchronized void put(Member member, long readGeneration) {
+        if (generation != readGeneration) {
+            return;
+        }
+        // Callers mutate the members they get back (see MemberService.updateMember)
+        Member copy = new Member(member);
+        CacheEntry previous = byId.put(copy.getMemberId(),
+                new CacheEntry(copy, System.currentTimeMillis() + ttlMillis));
+        if (previous != null) {
+            removeEmailIndex(previous.member);
+        }
+        if (copy.getEmail() != null) {
+            idByEmail.put(copy.getEmail().toLowerCase(Locale.ROOT), copy.getMemberId());
+        }
+
+        Iterator<CacheEntry> it = byId.values().iterator();
+        while (byId.size() > maxSize && it.hasNext()) {
+            CacheEntry eldest = it.next();
+            it.remove();
+            removeEmailIndex(eldest.member);
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void removeEmailIndex(Member member) {
+        if (member.getEmail() != null) {
+            idByEmail.remove(member.getEmail().toLowerCase(Locale.ROOT), member.getMemberId());
+        }
+    }
+
+    private static class CacheEntry {
+        private final Member member;
+        private final long expiresAt;
+
+        CacheEntry(Member member, long expiresAt) {
+            this.member = member;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
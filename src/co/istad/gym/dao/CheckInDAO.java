@@ -0,0 +1,18 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.CheckIn;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface CheckInDAO {
+    // CREATE
+    int addCheckIns(List<CheckIn> checkIns) throws Exception;
+
+    // READ
+    List<CheckIn> getRecentCheckIns(int limit) throws Exception;
+    int countCheckInsOn(LocalDate day) throws Exception;
+
+    // ACCESS
+    int[] getMemberIdsWithAccess() throws Exception;
+    boolean hasAccess(int memberId) throws Exception;
+}
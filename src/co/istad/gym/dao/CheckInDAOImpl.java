@@ -0,0 +1,156 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.metrics.DaoMetrics;
+import co.istad.gym.model.CheckIn;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CheckInDAOImpl implements CheckInDAO {
+    private static final String COLUMNS = "check_in_id, member_id, check_in_time, granted";
+
+    @Override
+    public int addCheckIns(List<CheckIn> checkIns) throws Exception {
+        String sql = "INSERT INTO check_ins (member_id, check_in_time, granted) VALUES (?, ?, ?)";
+        int written = 0;
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            conn.setAutoCommit(false);
+
+            for (int start = 0; start < checkIns.size(); start += DatabaseConfig.BATCH_SIZE) {
+                List<CheckIn> chunk = checkIns.subList(start,
+                        Math.min(start + DatabaseConfig.BATCH_SIZE, checkIns.size()));
+                try {
+                    for (CheckIn checkIn : chunk) {
+                        pstmt.setInt(1, checkIn.getMemberId());
+                        pstmt.setTimestamp(2, Timestamp.valueOf(checkIn.getCheckInTime()));
+                        pstmt.setBoolean(3, checkIn.isGranted());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+                written += chunk.size();
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error adding check-ins (" + written + " committed): " + e.getMessage());
+            e.printStackTrace();
+        }
+        return written;
+    }
+
+    @Override
+    public List<CheckIn> getRecentCheckIns(int limit) throws Exception {
+        List<CheckIn> checkIns = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM check_ins ORDER BY check_in_id DESC LIMIT ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                checkIns.add(mapResultSetToCheckIn(rs));
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error getting recent check-ins: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return checkIns;
+    }
+
+    @Override
+    public int countCheckInsOn(LocalDate day) throws Exception {
+        String sql = "SELECT COUNT(*) FROM check_ins WHERE check_in_time >= ? AND check_in_time < ? AND granted = true";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setTimestamp(1, Timestamp.valueOf(day.atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error counting check-ins: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    // Live members holding a paid subscription that covers today
+    @Override
+    public int[] getMemberIdsWithAccess() throws Exception {
+        String sql = "SELECT m.member_id FROM members m WHERE m.is_deleted = false AND EXISTS (" +
+                "SELECT 1 FROM subscriptions s WHERE s.member_id = m.member_id AND s.is_deleted = false " +
+                "AND s.payment_status = 'PAID' AND s.start_date <= CURRENT_DATE AND s.end_date >= CURRENT_DATE)";
+
+        int[] memberIds = new int[1024];
+        int count = 0;
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            conn.setAutoCommit(false);
+            stmt.setFetchSize(DatabaseConfig.FETCH_SIZE);
+            ResultSet rs = stmt.executeQuery(sql);
+            while (rs.next()) {
+                if (count == memberIds.length) {
+                    memberIds = Arrays.copyOf(memberIds, count * 2);
+                }
+                memberIds[count++] = rs.getInt(1);
+            }
+            conn.commit();
+
+        } catch (SQLException e) {
+            // An empty result would lock every member out, so the caller must see the failure
+            System.err.println("Error getting members with access: " + e.getMessage());
+            throw e;
+        }
+        return Arrays.copyOf(memberIds, count);
+    }
+
+    // Same rule as getMemberIdsWithAccess, for one member
+    @Override
+    public boolean hasAccess(int memberId) throws Exception {
+        String sql = "SELECT EXISTS (SELECT 1 FROM members m WHERE m.member_id = ? AND m.is_deleted = false AND EXISTS (" +
+                "SELECT 1 FROM subscriptions s WHERE s.member_id = m.member_id AND s.is_deleted = false " +
+                "AND s.payment_status = 'PAID' AND s.start_date <= CURRENT_DATE AND s.end_date >= CURRENT_DATE))";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, memberId);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() && rs.getBoolean(1);
+
+        } catch (SQLException e) {
+            // A false result would lock the member out, so the caller must see the failure
+            System.err.println("Error checking member access: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private CheckIn mapResultSetToCheckIn(ResultSet rs) throws SQLException {
+        CheckIn checkIn = new CheckIn();
+        checkIn.setCheckInId(rs.getLong(1));
+        checkIn.setMemberId(rs.getInt(2));
+        checkIn.setCheckInTime(rs.getTimestamp(3).toLocalDateTime());
+        checkIn.setGranted(rs.getBoolean(4));
+        return checkIn;
+    }
+}
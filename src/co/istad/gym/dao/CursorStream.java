@@ -0,0 +1,91 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.config.DatabaseConfig;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Lazily maps rows from a server-side cursor. The driver only uses a cursor
+// when autocommit is off and a fetch size is set; otherwise it buffers the
+// whole result. Callers must close the stream (try-with-resources) to give
+// the connection back, although it is also released once the rows run out.
+class CursorStream<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+    private final Connection conn;
+    private final PreparedStatement pstmt;
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+    private boolean closed;
+
+    private CursorStream(Connection conn, PreparedStatement pstmt, ResultSet rs, RowMapper<T> mapper) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.conn = conn;
+        this.pstmt = pstmt;
+        this.rs = rs;
+        this.mapper = mapper;
+    }
+
+    static <T> Stream<T> open(String sql, OrdinalRowMapper<T> mapper) throws Exception {
+        Connection conn = DatabaseConfig.getConnection();
+        PreparedStatement pstmt = null;
+        try {
+            conn.setAutoCommit(false);
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(DatabaseConfig.FETCH_SIZE);
+            ResultSet rs = pstmt.executeQuery();
+
+            CursorStream<T> cursor = new CursorStream<>(conn, pstmt, rs, mapper.bind(rs));
+            return StreamSupport.stream(cursor, false).onClose(cursor::close);
+        } catch (SQLException | RuntimeException e) {
+            if (pstmt != null) {
+                pstmt.close();
+            }
+            conn.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (!rs.next()) {
+                close();
+                return false;
+            }
+            action.accept(mapper.map(rs));
+            return true;
+        } catch (SQLException e) {
+            close();
+            throw new IllegalStateException("Error reading from cursor: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            rs.close();
+            pstmt.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cursor: " + e.getMessage());
+        } finally {
+            try {
+                // Returning the connection to the pool also ends the read transaction
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error releasing cursor connection: " + e.getMessage());
+            }
+        }
+    }
+}
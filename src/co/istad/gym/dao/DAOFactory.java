@@ -0,0 +1,80 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.metrics.DaoMetrics;
+
+// Shared DAO instances, so every service sees the same caches and listeners.
+// The JDBC implementations are wrapped for DaoMetrics beneath the caches, so
+// the metrics describe database calls.
+public class DAOFactory {
+    private static final int MEMBER_CACHE_SIZE = Integer.getInteger("gym.cache.members.maxSize", 10000);
+    private static final long MEMBER_CACHE_TTL_MS = Long.getLong("gym.cache.members.ttlMs", 600000L);
+
+    private static final ObservableMemberDAO MEMBER_EVENTS = new ObservableMemberDAO(DaoMetrics.instrument(MemberDAO.class, new MemberDAOImpl()));
+    private static final CachingMemberDAO MEMBER_CACHE =
+            new CachingMemberDAO(MEMBER_EVENTS, MEMBER_CACHE_SIZE, MEMBER_CACHE_TTL_MS);
+    private static final ObservableSubscriptionDAO SUBSCRIPTION_EVENTS =
+            new ObservableSubscriptionDAO(DaoMetrics.instrument(SubscriptionDAO.class, new SubscriptionDAOImpl()));
+    private static final StatisticsDAO STATISTICS_DAO = DaoMetrics.instrument(StatisticsDAO.class, new StatisticsDAOImpl());
+    private static final PlanDAO PLAN_DAO = DaoMetrics.instrument(PlanDAO.class, new PlanDAOImpl());
+    private static final CheckInDAO CHECK_IN_DAO = DaoMetrics.instrument(CheckInDAO.class, new CheckInDAOImpl());
+
+    // Async facades share one executor, bounded by the connection pool size
+    private static final DaoExecutor ASYNC_EXECUTOR = new DaoExecutor(DatabaseConfig.getPoolMaxSize());
+    private static final AsyncMemberDAO ASYNC_MEMBER_DAO = new AsyncMemberDAO(MEMBER_CACHE, ASYNC_EXECUTOR);
+    private static final AsyncSubscriptionDAO ASYNC_SUBSCRIPTION_DAO =
+            new AsyncSubscriptionDAO(SUBSCRIPTION_EVENTS, ASYNC_EXECUTOR);
+
+    private DAOFactory() {}
+
+    public static MemberDAO getMemberDAO() {
+        return MEMBER_CACHE;
+    }
+
+    public static SubscriptionDAO getSubscriptionDAO() {
+        return SUBSCRIPTION_EVENTS;
+    }
+
+    public static StatisticsDAO getStatisticsDAO() {
+        return STATISTICS_DAO;
+    }
+
+    public static PlanDAO getPlanDAO() {
+        return PLAN_DAO;
+    }
+
+    public static CheckInDAO getCheckInDAO() {
+        return CHECK_IN_DAO;
+    }
+
+    public static AsyncMemberDAO getAsyncMemberDAO() {
+        return ASYNC_MEMBER_DAO;
+    }
+
+    public static AsyncSubscriptionDAO getAsyncSubscriptionDAO() {
+        return ASYNC_SUBSCRIPTION_DAO;
+    }
+
+    public static DaoExecutor getAsyncExecutor() {
+        return ASYNC_EXECUTOR;
+    }
+
+    public static CachingMemberDAO getMemberCache() {
+        return MEMBER_CACHE;
+    }
+
+    public static void addMemberListener(MemberListener listener) {
+        MEMBER_EVENTS.addListener(listener);
+    }
+
+    public static void addSubscriptionListener(SubscriptionListener listener) {
+        SUBSCRIPTION_EVENTS.addListener(listener);
+    }
+
+    // Called after rows were written behind the DAOs' back, e.g. by a COPY load
+    public static void notifyBulkChange() {
+        MEMBER_CACHE.clear();
+        MEMBER_EVENTS.fireBulkChange();
+        SUBSCRIPTION_EVENTS.fireBulkChange();
+    }
+}
@@ -0,0 +1,66 @@
+package co.istad.gym.dao;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+// Runs blocking DAO calls on virtual threads. A semaphore sized to the
+// connection pool bounds the calls in flight, so surplus callers park here
+// (cheaply, on their virtual thread) instead of timing out in ConnectionPool.
+public class DaoExecutor {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    @FunctionalInterface
+    public interface DaoCall<T> {
+        T call() throws Exception;
+    }
+
+    public DaoExecutor(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    public <T> CompletableFuture<T> submit(DaoCall<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+                try {
+                    future.complete(call.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getInFlight() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
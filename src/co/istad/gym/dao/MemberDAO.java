@@ -3,13 +3,17 @@ package co.istad.gym.dao;
 import co.istad.gym.model.Member;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MemberDAO {
     // CREATE
     int addMember(Member member) throws Exception;
+    List<Integer> addMembers(List<Member> members) throws Exception;
 
     // READ
     List<Member> getAllMembers() throws Exception;
+    List<Member> getMembersPage(int afterMemberId, int pageSize) throws Exception;
+    Stream<Member> streamAllMembers() throws Exception;
     Optional<Member> getMemberById(int memberId) throws Exception;
     Optional<Member> getMemberByEmail(String email) throws Exception;
     List<Member> getActiveMembers() throws Exception;
@@ -22,6 +26,7 @@ public interface MemberDAO {
 
     // SEARCH
     List<Member> searchMembers(String keyword) throws Exception;
+    List<Member> searchMembers(String keyword, int limit) throws Exception;
 
     // STATISTICS
     int countMembers() throws Exception;
@@ -1,6 +1,7 @@
 package co.istad.gym.dao;
 
 import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.metrics.DaoMetrics;
 import co.istad.gym.dao.MemberDAO;
 import co.istad.gym.model.Member;
 import java.sql.*;
@@ -9,8 +10,13 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class MemberDAOImpl implements MemberDAO {
+    private static final String COLUMNS = MemberRowMapper.INSTANCE.columns();
+    private static final String ACTIVE_SUBSCRIPTION_EXISTS = "SELECT 1 FROM subscriptions s " +
+            "WHERE s.member_id = m.member_id AND s.is_deleted = false " +
+            "AND s.payment_status = 'PAID' AND s.end_date >= CURRENT_DATE";
 
     @Override
     public int addMember(Member member) throws Exception {
@@ -21,16 +27,7 @@ public class MemberDAOImpl implements MemberDAO {
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, member.getFirstName());
-            pstmt.setString(2, member.getLastName());
-            pstmt.setString(3, member.getEmail());
-            pstmt.setString(4, member.getPhoneNumber());
-            pstmt.setDate(5, member.getDateOfBirth() != null ?
-                    Date.valueOf(member.getDateOfBirth()) : null);
-            pstmt.setString(6, member.getEmergencyContact());
-            pstmt.setTimestamp(7, Timestamp.valueOf(member.getCreatedAt()));
-            pstmt.setTimestamp(8, Timestamp.valueOf(member.getUpdatedAt()));
-            pstmt.setBoolean(9, member.isDeleted());
+            setInsertParameters(pstmt, member);
 
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
@@ -38,35 +35,116 @@ public class MemberDAOImpl implements MemberDAO {
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error adding member: " + e.getMessage());
             e.printStackTrace();
         }
         return -1;
     }
 
+    @Override
+    public List<Integer> addMembers(List<Member> members) throws Exception {
+        List<Integer> memberIds = new ArrayList<>(members.size());
+        String sql = "INSERT INTO members (first_name, last_name, email, phone_number, " +
+                "date_of_birth, emergency_contact, created_at, updated_at, is_deleted) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, new String[]{"member_id"})) {
+
+            conn.setAutoCommit(false);
+
+            // One transaction per chunk: a failed chunk rolls back alone and earlier chunks stay committed
+            for (int start = 0; start < members.size(); start += DatabaseConfig.BATCH_SIZE) {
+                List<Member> chunk = members.subList(start, Math.min(start + DatabaseConfig.BATCH_SIZE, members.size()));
+                List<Integer> chunkIds = new ArrayList<>(chunk.size());
+
+                try {
+                    for (Member member : chunk) {
+                        setInsertParameters(pstmt, member);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            chunkIds.add(keys.getInt(1));
+                        }
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+                memberIds.addAll(chunkIds);
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error adding members in batch (" + memberIds.size() + " committed): " + e.getMessage());
+            e.printStackTrace();
+        }
+        return memberIds;
+    }
+
     @Override
     public List<Member> getAllMembers() throws Exception {
         List<Member> members = new ArrayList<>();
-        String sql = "SELECT * FROM members WHERE is_deleted = false ORDER BY member_id";
+        String sql = "SELECT " + COLUMNS + " FROM members WHERE is_deleted = false ORDER BY member_id";
 
         try (Connection conn = DatabaseConfig.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
+            RowMapper<Member> mapper = MemberRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                members.add(mapResultSetToMember(rs));
+                members.add(mapper.map(rs));
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error getting all members: " + e.getMessage());
             e.printStackTrace();
         }
         return members;
     }
 
+    @Override
+    public List<Member> getMembersPage(int afterMemberId, int pageSize) throws Exception {
+        List<Member> members = new ArrayList<>(pageSize);
+        // Keyset pagination: seek past the last id seen instead of using OFFSET
+        String sql = "SELECT " + COLUMNS + " FROM members WHERE is_deleted = false AND member_id > ? " +
+                "ORDER BY member_id LIMIT ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterMemberId);
+            pstmt.setInt(2, pageSize);
+            ResultSet rs = pstmt.executeQuery();
+
+            RowMapper<Member> mapper = MemberRowMapper.INSTANCE.bind(rs);
+            while (rs.next()) {
+                members.add(mapper.map(rs));
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error getting members page: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return members;
+    }
+
+    @Override
+    public Stream<Member> streamAllMembers() throws Exception {
+        String sql = "SELECT " + COLUMNS + " FROM members WHERE is_deleted = false ORDER BY member_id";
+        return CursorStream.open(sql, MemberRowMapper.INSTANCE);
+    }
+
     @Override
     public Optional<Member> getMemberById(int memberId) throws Exception {
-        String sql = "SELECT * FROM members WHERE member_id = ? AND is_deleted = false";
+        String sql = "SELECT " + COLUMNS + " FROM members WHERE member_id = ? AND is_deleted = false";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -75,10 +153,11 @@ public class MemberDAOImpl implements MemberDAO {
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                return Optional.of(mapResultSetToMember(rs));
+                return Optional.of(MemberRowMapper.INSTANCE.bind(rs).map(rs));
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error getting member by ID: " + e.getMessage());
             e.printStackTrace();
         }
@@ -87,7 +166,7 @@ public class MemberDAOImpl implements MemberDAO {
 
     @Override
     public Optional<Member> getMemberByEmail(String email) throws Exception {
-        String sql = "SELECT * FROM members WHERE email = ? AND is_deleted = false";
+        String sql = "SELECT " + COLUMNS + " FROM members WHERE email = ? AND is_deleted = false";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -96,10 +175,11 @@ public class MemberDAOImpl implements MemberDAO {
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                return Optional.of(mapResultSetToMember(rs));
+                return Optional.of(MemberRowMapper.INSTANCE.bind(rs).map(rs));
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error getting member by email: " + e.getMessage());
             e.printStackTrace();
         }
@@ -128,6 +208,7 @@ public class MemberDAOImpl implements MemberDAO {
             return pstmt.executeUpdate() > 0;
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error updating member: " + e.getMessage());
             e.printStackTrace();
             return false;
@@ -147,6 +228,7 @@ public class MemberDAOImpl implements MemberDAO {
             return pstmt.executeUpdate() > 0;
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error soft deleting member: " + e.getMessage());
             e.printStackTrace();
             return false;
@@ -156,25 +238,62 @@ public class MemberDAOImpl implements MemberDAO {
     @Override
     public List<Member> searchMembers(String keyword) throws Exception {
         List<Member> members = new ArrayList<>();
-        String sql = "SELECT * FROM members WHERE is_deleted = false AND " +
+        String sql = "SELECT " + COLUMNS + " FROM members WHERE is_deleted = false AND " +
                 "(first_name ILIKE ? OR last_name ILIKE ? OR email ILIKE ? OR phone_number ILIKE ?) " +
                 "ORDER BY member_id";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            String searchPattern = "%" + keyword + "%";
+            String searchPattern = containsPattern(keyword);
             pstmt.setString(1, searchPattern);
             pstmt.setString(2, searchPattern);
             pstmt.setString(3, searchPattern);
             pstmt.setString(4, searchPattern);
 
             ResultSet rs = pstmt.executeQuery();
+            RowMapper<Member> mapper = MemberRowMapper.INSTANCE.bind(rs);
+            while (rs.next()) {
+                members.add(mapper.map(rs));
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error searching members: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return members;
+    }
+
+    @Override
+    public List<Member> searchMembers(String keyword, int limit) throws Exception {
+        List<Member> members = new ArrayList<>();
+        // The ILIKE filters are served by the pg_trgm GIN indexes (see SchemaMigrator);
+        // word_similarity ranks the closest matches first
+        String sql = "SELECT " + COLUMNS + " FROM members WHERE is_deleted = false AND " +
+                "(first_name ILIKE ? OR last_name ILIKE ? OR email ILIKE ? OR phone_number ILIKE ?) " +
+                "ORDER BY GREATEST(word_similarity(?, first_name), word_similarity(?, last_name), " +
+                "word_similarity(?, email), word_similarity(?, COALESCE(phone_number, ''))) DESC, member_id " +
+                "LIMIT ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            String searchPattern = containsPattern(keyword);
+            for (int i = 1; i <= 4; i++) {
+                pstmt.setString(i, searchPattern);
+                pstmt.setString(i + 4, keyword);
+            }
+            pstmt.setInt(9, limit);
+
+            ResultSet rs = pstmt.executeQuery();
+            RowMapper<Member> mapper = MemberRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                members.add(mapResultSetToMember(rs));
+                members.add(mapper.map(rs));
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error searching members: " + e.getMessage());
             e.printStackTrace();
         }
@@ -183,11 +302,9 @@ public class MemberDAOImpl implements MemberDAO {
 
     @Override
     public List<Member> getActiveMembers() throws Exception {
-        // Members with active subscriptions
-        String sql = "SELECT DISTINCT m.* FROM members m " +
-                "JOIN subscriptions s ON m.member_id = s.member_id " +
-                "WHERE m.is_deleted = false AND s.is_deleted = false " +
-                "AND s.payment_status = 'PAID' AND s.end_date >= CURRENT_DATE " +
+        // Members with active subscriptions; EXISTS stops at the first match instead of de-duplicating a join
+        String sql = "SELECT " + MemberRowMapper.INSTANCE.columns("m") + " FROM members m " +
+                "WHERE m.is_deleted = false AND EXISTS (" + ACTIVE_SUBSCRIPTION_EXISTS + ") " +
                 "ORDER BY m.member_id";
 
         List<Member> members = new ArrayList<>();
@@ -196,11 +313,13 @@ public class MemberDAOImpl implements MemberDAO {
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
+            RowMapper<Member> mapper = MemberRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                members.add(mapResultSetToMember(rs));
+                members.add(mapper.map(rs));
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error getting active members: " + e.getMessage());
             e.printStackTrace();
         }
@@ -220,6 +339,7 @@ public class MemberDAOImpl implements MemberDAO {
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error counting members: " + e.getMessage());
             e.printStackTrace();
         }
@@ -228,10 +348,8 @@ public class MemberDAOImpl implements MemberDAO {
 
     @Override
     public int countActiveMembers() throws Exception {
-        String sql = "SELECT COUNT(DISTINCT m.member_id) FROM members m " +
-                "JOIN subscriptions s ON m.member_id = s.member_id " +
-                "WHERE m.is_deleted = false AND s.is_deleted = false " +
-                "AND s.payment_status = 'PAID' AND s.end_date >= CURRENT_DATE";
+        String sql = "SELECT COUNT(*) FROM members m " +
+                "WHERE m.is_deleted = false AND EXISTS (" + ACTIVE_SUBSCRIPTION_EXISTS + ")";
 
         try (Connection conn = DatabaseConfig.getConnection();
              Statement stmt = conn.createStatement();
@@ -242,30 +360,29 @@ public class MemberDAOImpl implements MemberDAO {
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error counting active members: " + e.getMessage());
             e.printStackTrace();
         }
         return 0;
     }
 
-    private Member mapResultSetToMember(ResultSet rs) throws SQLException {
-        Member member = new Member();
-        member.setMemberId(rs.getInt("member_id"));
-        member.setFirstName(rs.getString("first_name"));
-        member.setLastName(rs.getString("last_name"));
-        member.setEmail(rs.getString("email"));
-        member.setPhoneNumber(rs.getString("phone_number"));
-
-        Date dob = rs.getDate("date_of_birth");
-        if (dob != null) {
-            member.setDateOfBirth(dob.toLocalDate());
-        }
-
-        member.setEmergencyContact(rs.getString("emergency_contact"));
-        member.setDeleted(rs.getBoolean("is_deleted"));
-        member.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        member.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+    // Escapes LIKE wildcards so the keyword is matched literally
+    static String containsPattern(String keyword) {
+        String escaped = keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
 
-        return member;
+    private void setInsertParameters(PreparedStatement pstmt, Member member) throws SQLException {
+        pstmt.setString(1, member.getFirstName());
+        pstmt.setString(2, member.getLastName());
+        pstmt.setString(3, member.getEmail());
+        pstmt.setString(4, member.getPhoneNumber());
+        pstmt.setDate(5, member.getDateOfBirth() != null ?
+                Date.valueOf(member.getDateOfBirth()) : null);
+        pstmt.setString(6, member.getEmergencyContact());
+        pstmt.setTimestamp(7, Timestamp.valueOf(member.getCreatedAt()));
+        pstmt.setTimestamp(8, Timestamp.valueOf(member.getUpdatedAt()));
+        pstmt.setBoolean(9, member.isDeleted());
     }
 }
\ No newline at end of file
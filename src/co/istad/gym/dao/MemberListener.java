@@ -0,0 +1,15 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.Member;
+
+// Notified after a member write has been committed.
+public interface MemberListener {
+    default void onMemberAdded(Member member) {}
+
+    default void onMemberChanged(Member member) {}
+
+    default void onMemberRemoved(int memberId) {}
+
+    // Rows changed outside the DAO (bulk loads); listeners should rebuild
+    default void onBulkChange() {}
+}
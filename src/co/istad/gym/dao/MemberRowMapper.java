@@ -0,0 +1,49 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.Member;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class MemberRowMapper extends OrdinalRowMapper<Member> {
+    public static final MemberRowMapper INSTANCE = new MemberRowMapper();
+
+    // Positions in the column list below
+    private static final int MEMBER_ID = 0;
+    private static final int FIRST_NAME = 1;
+    private static final int LAST_NAME = 2;
+    private static final int EMAIL = 3;
+    private static final int PHONE_NUMBER = 4;
+    private static final int DATE_OF_BIRTH = 5;
+    private static final int EMERGENCY_CONTACT = 6;
+    private static final int CREATED_AT = 7;
+    private static final int UPDATED_AT = 8;
+    private static final int IS_DELETED = 9;
+
+    private MemberRowMapper() {
+        super("member_id", "first_name", "last_name", "email", "phone_number",
+                "date_of_birth", "emergency_contact", "created_at", "updated_at", "is_deleted");
+    }
+
+    @Override
+    protected Member map(ResultSet rs, int[] c) throws SQLException {
+        Member member = new Member();
+        member.setMemberId(rs.getInt(c[MEMBER_ID]));
+        member.setFirstName(rs.getString(c[FIRST_NAME]));
+        member.setLastName(rs.getString(c[LAST_NAME]));
+        member.setEmail(rs.getString(c[EMAIL]));
+        member.setPhoneNumber(rs.getString(c[PHONE_NUMBER]));
+
+        Date dob = rs.getDate(c[DATE_OF_BIRTH]);
+        if (dob != null) {
+            member.setDateOfBirth(dob.toLocalDate());
+        }
+
+        member.setEmergencyContact(rs.getString(c[EMERGENCY_CONTACT]));
+        member.setDeleted(rs.getBoolean(c[IS_DELETED]));
+        member.setCreatedAt(rs.getTimestamp(c[CREATED_AT]).toLocalDateTime());
+        member.setUpdatedAt(rs.getTimestamp(c[UPDATED_AT]).toLocalDateTime());
+
+        return member;
+    }
+}
@@ -0,0 +1,157 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.Member;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+// MemberDAO decorator that tells registered listeners about successful writes,
+// so in-memory indexes and counters can follow the table.
+public class ObservableMemberDAO implements MemberDAO {
+    private final MemberDAO delegate;
+    private final List<MemberListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ObservableMemberDAO(MemberDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    public void addListener(MemberListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MemberListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void fireBulkChange() {
+        for (MemberListener listener : listeners) {
+            try {
+                listener.onBulkChange();
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying member listener: " + e.getMessage());
+            }
+        }
+    }
+
+    // CREATE
+    @Override
+    public int addMember(Member member) throws Exception {
+        int memberId = delegate.addMember(member);
+        if (memberId > 0) {
+            fireAdded(member, memberId);
+        }
+        return memberId;
+    }
+
+    @Override
+    public List<Integer> addMembers(List<Member> members) throws Exception {
+        List<Integer> memberIds = delegate.addMembers(members);
+        // Ids come back in input order, and only for committed chunks
+        for (int i = 0; i < memberIds.size(); i++) {
+            fireAdded(members.get(i), memberIds.get(i));
+        }
+        return memberIds;
+    }
+
+    // READ
+    @Override
+    public List<Member> getAllMembers() throws Exception {
+        return delegate.getAllMembers();
+    }
+
+    @Override
+    public List<Member> getMembersPage(int afterMemberId, int pageSize) throws Exception {
+        return delegate.getMembersPage(afterMemberId, pageSize);
+    }
+
+    @Override
+    public Stream<Member> streamAllMembers() throws Exception {
+        return delegate.streamAllMembers();
+    }
+
+    @Override
+    public Optional<Member> getMemberById(int memberId) throws Exception {
+        return delegate.getMemberById(memberId);
+    }
+
+    @Override
+    public Optional<Member> getMemberByEmail(String email) throws Exception {
+        return delegate.getMemberByEmail(email);
+    }
+
+    @Override
+    public List<Member> getActiveMembers() throws Exception {
+        return delegate.getActiveMembers();
+    }
+
+    // UPDATE
+    @Override
+    public boolean updateMember(Member member) throws Exception {
+        boolean updated = delegate.updateMember(member);
+        if (updated && !listeners.isEmpty()) {
+            Member after = new Member(member);
+            for (MemberListener listener : listeners) {
+                try {
+                    listener.onMemberChanged(after);
+                } catch (RuntimeException e) {
+                    System.err.println("Error notifying member listener: " + e.getMessage());
+                }
+            }
+        }
+        return updated;
+    }
+
+    // DELETE
+    @Override
+    public boolean softDeleteMember(int memberId) throws Exception {
+        boolean deleted = delegate.softDeleteMember(memberId);
+        if (deleted) {
+            for (MemberListener listener : listeners) {
+                try {
+                    listener.onMemberRemoved(memberId);
+                } catch (RuntimeException e) {
+                    System.err.println("Error notifying member listener: " + e.getMessage());
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // SEARCH
+    @Override
+    public List<Member> searchMembers(String keyword) throws Exception {
+        return delegate.searchMembers(keyword);
+    }
+
+    @Override
+    public List<Member> searchMembers(String keyword, int limit) throws Exception {
+        return delegate.searchMembers(keyword, limit);
+    }
+
+    // STATISTICS
+    @Override
+    public int countMembers() throws Exception {
+        return delegate.countMembers();
+    }
+
+    @Override
+    public int countActiveMembers() throws Exception {
+        return delegate.countActiveMembers();
+    }
+
+    private void fireAdded(Member member, int memberId) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        Member added = new Member(member);
+        added.setMemberId(memberId);
+        for (MemberListener listener : listeners) {
+            try {
+                listener.onMemberAdded(added);
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying member listener: " + e.getMessage());
+            }
+        }
+    }
+}
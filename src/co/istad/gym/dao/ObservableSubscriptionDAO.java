@@ -0,0 +1,253 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.BulkUpdateResult;
+import co.istad.gym.model.PeriodRevenue;
+import co.istad.gym.model.PlanRevenue;
+import co.istad.gym.model.Subscription;
+import co.istad.gym.model.SubscriptionChange;
+import co.istad.gym.model.TimeBucket;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+// SubscriptionDAO decorator that tells registered listeners about successful
+// writes. While someone is listening, updates go through the delegate's
+// RETURNING variants, which give the row before and after in one statement.
+public class ObservableSubscriptionDAO implements SubscriptionDAO {
+    private final SubscriptionDAO delegate;
+    private final List<SubscriptionListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ObservableSubscriptionDAO(SubscriptionDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    public void addListener(SubscriptionListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(SubscriptionListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void fireBulkChange() {
+        for (SubscriptionListener listener : listeners) {
+            try {
+                listener.onBulkChange();
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying subscription listener: " + e.getMessage());
+            }
+        }
+    }
+
+    // CREATE
+    @Override
+    public int addSubscription(Subscription subscription) throws Exception {
+        int subscriptionId = delegate.addSubscription(subscription);
+        if (subscriptionId > 0) {
+            fireAdded(subscription, subscriptionId);
+        }
+        return subscriptionId;
+    }
+
+    @Override
+    public List<Integer> addSubscriptions(List<Subscription> subscriptions) throws Exception {
+        List<Integer> subscriptionIds = delegate.addSubscriptions(subscriptions);
+        // Ids come back in input order, and only for committed chunks
+        for (int i = 0; i < subscriptionIds.size(); i++) {
+            fireAdded(subscriptions.get(i), subscriptionIds.get(i));
+        }
+        return subscriptionIds;
+    }
+
+    // READ
+    @Override
+    public List<Subscription> getAllSubscriptions() throws Exception {
+        return delegate.getAllSubscriptions();
+    }
+
+    @Override
+    public List<Subscription> getSubscriptionsPage(int afterSubscriptionId, int pageSize) throws Exception {
+        return delegate.getSubscriptionsPage(afterSubscriptionId, pageSize);
+    }
+
+    @Override
+    public Stream<Subscription> streamAllSubscriptions() throws Exception {
+        return delegate.streamAllSubscriptions();
+    }
+
+    @Override
+    public Optional<Subscription> getSubscriptionById(int subscriptionId) throws Exception {
+        return delegate.getSubscriptionById(subscriptionId);
+    }
+
+    @Override
+    public List<Subscription> getSubscriptionsByIds(List<Integer> subscriptionIds) throws Exception {
+        return delegate.getSubscriptionsByIds(subscriptionIds);
+    }
+
+    @Override
+    public List<Subscription> getSubscriptionsByMemberId(int memberId) throws Exception {
+        return delegate.getSubscriptionsByMemberId(memberId);
+    }
+
+    @Override
+    public List<Subscription> getActiveSubscriptions() throws Exception {
+        return delegate.getActiveSubscriptions();
+    }
+
+    @Override
+    public List<Subscription> getExpiringSubscriptions(int daysBefore) throws Exception {
+        return delegate.getExpiringSubscriptions(daysBefore);
+    }
+
+    // UPDATE
+    // Each write returns the row before and after it, so listeners never see a
+    // pair that was stitched together from separate reads
+    @Override
+    public boolean updateSubscription(Subscription subscription) throws Exception {
+        if (listeners.isEmpty()) {
+            return delegate.updateSubscription(subscription);
+        }
+        return updateSubscriptionReturning(subscription).isPresent();
+    }
+
+    @Override
+    public boolean renewSubscription(int subscriptionId, int days) throws Exception {
+        if (listeners.isEmpty()) {
+            return delegate.renewSubscription(subscriptionId, days);
+        }
+        return renewSubscriptionReturning(subscriptionId, days).isPresent();
+    }
+
+    @Override
+    public boolean updatePaymentStatus(int subscriptionId, String status) throws Exception {
+        if (listeners.isEmpty()) {
+            return delegate.updatePaymentStatus(subscriptionId, status);
+        }
+        return updatePaymentStatusReturning(subscriptionId, status).isPresent();
+    }
+
+    @Override
+    public BulkUpdateResult renewSubscriptions(List<Integer> subscriptionIds, int days, boolean markPaid) throws Exception {
+        BulkUpdateResult result = delegate.renewSubscriptions(subscriptionIds, days, markPaid);
+        fireChanged(result.changes());
+        return result;
+    }
+
+    @Override
+    public BulkUpdateResult updatePaymentStatuses(List<Integer> subscriptionIds, String status) throws Exception {
+        BulkUpdateResult result = delegate.updatePaymentStatuses(subscriptionIds, status);
+        fireChanged(result.changes());
+        return result;
+    }
+
+    @Override
+    public Optional<SubscriptionChange> updateSubscriptionReturning(Subscription subscription) throws Exception {
+        Optional<SubscriptionChange> change = delegate.updateSubscriptionReturning(subscription);
+        change.ifPresent(this::fireChanged);
+        return change;
+    }
+
+    @Override
+    public Optional<SubscriptionChange> renewSubscriptionReturning(int subscriptionId, int days) throws Exception {
+        Optional<SubscriptionChange> change = delegate.renewSubscriptionReturning(subscriptionId, days);
+        change.ifPresent(this::fireChanged);
+        return change;
+    }
+
+    @Override
+    public Optional<SubscriptionChange> updatePaymentStatusReturning(int subscriptionId, String status) throws Exception {
+        Optional<SubscriptionChange> change = delegate.updatePaymentStatusReturning(subscriptionId, status);
+        change.ifPresent(this::fireChanged);
+        return change;
+    }
+
+    // DELETE
+    @Override
+    public boolean softDeleteSubscription(int subscriptionId) throws Exception {
+        if (listeners.isEmpty()) {
+            return delegate.softDeleteSubscription(subscriptionId);
+        }
+        return softDeleteSubscriptionReturning(subscriptionId).isPresent();
+    }
+
+    @Override
+    public Optional<SubscriptionChange> softDeleteSubscriptionReturning(int subscriptionId) throws Exception {
+        Optional<SubscriptionChange> change = delegate.softDeleteSubscriptionReturning(subscriptionId);
+        change.ifPresent(c -> {
+            for (SubscriptionListener listener : listeners) {
+                try {
+                    listener.onSubscriptionRemoved(c.before());
+                } catch (RuntimeException e) {
+                    System.err.println("Error notifying subscription listener: " + e.getMessage());
+                }
+            }
+        });
+        return change;
+    }
+
+    // SEARCH
+    @Override
+    public List<Subscription> searchSubscriptions(String memberName, String paymentStatus, int planId) throws Exception {
+        return delegate.searchSubscriptions(memberName, paymentStatus, planId);
+    }
+
+    // STATISTICS
+    @Override
+    public int countSubscriptions() throws Exception {
+        return delegate.countSubscriptions();
+    }
+
+    @Override
+    public int countActiveSubscriptions() throws Exception {
+        return delegate.countActiveSubscriptions();
+    }
+
+    @Override
+    public double calculateMonthlyRevenue() throws Exception {
+        return delegate.calculateMonthlyRevenue();
+    }
+
+    @Override
+    public List<PlanRevenue> getRevenueByPlan() throws Exception {
+        return delegate.getRevenueByPlan();
+    }
+
+    @Override
+    public List<PeriodRevenue> getRevenueByPeriod(TimeBucket bucket, LocalDate from, LocalDate to) throws Exception {
+        return delegate.getRevenueByPeriod(bucket, from, to);
+    }
+
+    private void fireAdded(Subscription subscription, int subscriptionId) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        Subscription added = new Subscription(subscription);
+        added.setSubscriptionId(subscriptionId);
+        for (SubscriptionListener listener : listeners) {
+            try {
+                listener.onSubscriptionAdded(added);
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying subscription listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private void fireChanged(List<SubscriptionChange> changes) {
+        for (SubscriptionChange change : changes) {
+            fireChanged(change);
+        }
+    }
+
+    private void fireChanged(SubscriptionChange change) {
+        for (SubscriptionListener listener : listeners) {
+            try {
+                listener.onSubscriptionChanged(change.before(), change.after());
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying subscription listener: " + e.getMessage());
+            }
+        }
+    }
+}
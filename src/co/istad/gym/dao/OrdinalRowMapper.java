@@ -0,0 +1,81 @@
+package co.istad.gym.dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+// Maps rows by column position instead of by name. A mapper owns its column
+// list, which queries select explicitly through columns(), and bind() resolves
+// each column to its ordinal once per ResultSet. The returned RowMapper then
+// reads every row by index, skipping the driver's per-call name lookup.
+public abstract class OrdinalRowMapper<T> {
+    private final String[] columns;
+    private final String columnList;
+
+    protected OrdinalRowMapper(String... columns) {
+        this.columns = columns;
+        this.columnList = String.join(", ", columns);
+    }
+
+    // Comma separated column list for a SELECT, e.g. "member_id, first_name, ..."
+    public String columns() {
+        return columnList;
+    }
+
+    // The same list qualified with a table alias, for joins
+    public String columns(String alias) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(alias).append('.').append(columns[i]);
+        }
+        return sb.toString();
+    }
+
+    public int size() {
+        return columns.length;
+    }
+
+    // For rows that carry several images of these columns side by side, e.g. a
+    // before and after RETURNING: reads the image that starts after offset columns
+    public RowMapper<T> bindAt(int offset) {
+        int[] ordinals = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            ordinals[i] = offset + i + 1;
+        }
+        return row -> map(row, ordinals);
+    }
+
+    public RowMapper<T> bind(ResultSet rs) throws SQLException {
+        int[] ordinals = resolve(rs.getMetaData());
+        return row -> map(row, ordinals);
+    }
+
+    // ordinals[i] is the 1-based position of columns[i] in the current ResultSet
+    protected abstract T map(ResultSet rs, int[] ordinals) throws SQLException;
+
+    private int[] resolve(ResultSetMetaData meta) throws SQLException {
+        int count = meta.getColumnCount();
+        int[] ordinals = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            // Queries built from columns() line up exactly, so check the expected position first
+            if (i < count && columns[i].equalsIgnoreCase(meta.getColumnLabel(i + 1))) {
+                ordinals[i] = i + 1;
+            } else {
+                ordinals[i] = find(meta, count, columns[i]);
+            }
+        }
+        return ordinals;
+    }
+
+    private static int find(ResultSetMetaData meta, int count, String column) throws SQLException {
+        for (int i = 1; i <= count; i++) {
+            if (column.equalsIgnoreCase(meta.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        throw new SQLException("Column " + column + " not found in result set");
+    }
+}
@@ -0,0 +1,20 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.Plan;
+import java.util.List;
+import java.util.Optional;
+
+public interface PlanDAO {
+    // CREATE
+    int addPlan(Plan plan) throws Exception;
+
+    // READ
+    List<Plan> getAllPlans() throws Exception;
+    Optional<Plan> getPlanById(int planId) throws Exception;
+
+    // UPDATE
+    boolean updatePlan(Plan plan) throws Exception;
+
+    // MAINTENANCE
+    int linkSubscriptions() throws Exception;
+}
@@ -0,0 +1,158 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.metrics.DaoMetrics;
+import co.istad.gym.model.Plan;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class PlanDAOImpl implements PlanDAO {
+    private static final String COLUMNS = "plan_id, plan_name, price, duration_months, is_active, created_at, updated_at";
+
+    // Gives subscriptions written without a plan_id (COPY loads, CSV imports) their plan.
+    // Names missing from the catalog become plans priced and sized from their rows.
+    public static final String[] LINK_SUBSCRIPTIONS_SQL = {
+            "INSERT INTO plans (plan_name, price, duration_months) " +
+                    "SELECT plan_name, MAX(monthly_price), GREATEST(1, ROUND(MIN(end_date - start_date) / 30.0))::int " +
+                    "FROM subscriptions WHERE plan_id IS NULL AND plan_name IS NOT NULL " +
+                    "GROUP BY plan_name ON CONFLICT (plan_name) DO NOTHING",
+            "UPDATE subscriptions s SET plan_id = p.plan_id FROM plans p " +
+                    "WHERE s.plan_id IS NULL AND p.plan_name = s.plan_name"
+    };
+
+    @Override
+    public int addPlan(Plan plan) throws Exception {
+        String sql = "INSERT INTO plans (plan_name, price, duration_months, is_active, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?) RETURNING plan_id";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, plan.getPlanName());
+            pstmt.setDouble(2, plan.getPrice());
+            pstmt.setInt(3, plan.getDurationMonths());
+            pstmt.setBoolean(4, plan.isActive());
+            pstmt.setTimestamp(5, Timestamp.valueOf(plan.getCreatedAt()));
+            pstmt.setTimestamp(6, Timestamp.valueOf(plan.getUpdatedAt()));
+
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error adding plan: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    @Override
+    public List<Plan> getAllPlans() throws Exception {
+        List<Plan> plans = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM plans ORDER BY plan_id";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                plans.add(mapResultSetToPlan(rs));
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error getting all plans: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return plans;
+    }
+
+    @Override
+    public Optional<Plan> getPlanById(int planId) throws Exception {
+        String sql = "SELECT " + COLUMNS + " FROM plans WHERE plan_id = ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, planId);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                return Optional.of(mapResultSetToPlan(rs));
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error getting plan by ID: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean updatePlan(Plan plan) throws Exception {
+        String sql = "UPDATE plans SET plan_name = ?, price = ?, duration_months = ?, is_active = ?, updated_at = ? " +
+                "WHERE plan_id = ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, plan.getPlanName());
+            pstmt.setDouble(2, plan.getPrice());
+            pstmt.setInt(3, plan.getDurationMonths());
+            pstmt.setBoolean(4, plan.isActive());
+            pstmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+            pstmt.setInt(6, plan.getPlanId());
+
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error updating plan: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Returns the number of subscriptions that were given a plan_id
+    @Override
+    public int linkSubscriptions() throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            conn.setAutoCommit(false);
+            try {
+                stmt.executeUpdate(LINK_SUBSCRIPTIONS_SQL[0]);
+                int linked = stmt.executeUpdate(LINK_SUBSCRIPTIONS_SQL[1]);
+                conn.commit();
+                return linked;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error linking subscriptions to plans: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    private Plan mapResultSetToPlan(ResultSet rs) throws SQLException {
+        Plan plan = new Plan();
+        plan.setPlanId(rs.getInt(1));
+        plan.setPlanName(rs.getString(2));
+        plan.setPrice(rs.getDouble(3));
+        plan.setDurationMonths(rs.getInt(4));
+        plan.setActive(rs.getBoolean(5));
+        plan.setCreatedAt(rs.getTimestamp(6).toLocalDateTime());
+        plan.setUpdatedAt(rs.getTimestamp(7).toLocalDateTime());
+        return plan;
+    }
+}
@@ -0,0 +1,14 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.DashboardSnapshot;
+import co.istad.gym.model.StatisticsTotals;
+import co.istad.gym.util.IntIntMap;
+import java.util.OptionalInt;
+
+public interface StatisticsDAO {
+    // STATISTICS
+    DashboardSnapshot getDashboardSnapshot(int expiringWithinDays) throws Exception;
+    StatisticsTotals getStatisticsTotals(int expiringWithinDays, Runnable afterSnapshot) throws Exception;
+    IntIntMap getLatestPaidEndDays() throws Exception;
+    OptionalInt getLatestPaidEndDay(int memberId) throws Exception;
+}
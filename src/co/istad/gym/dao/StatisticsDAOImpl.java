@@ -0,0 +1,161 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.model.DashboardSnapshot;
+import co.istad.gym.model.PlanRevenue;
+import co.istad.gym.model.StatisticsTotals;
+import co.istad.gym.util.IntIntMap;
+import java.sql.*;
+import java.util.List;
+import java.util.OptionalInt;
+
+public class StatisticsDAOImpl implements StatisticsDAO {
+
+    // One round trip for every dashboard metric; each CTE scans its table once
+    private static final String DASHBOARD_SQL = "WITH member_stats AS (" +
+            "    SELECT COUNT(*) AS total_members FROM members WHERE is_deleted = false" +
+            "), active_member_stats AS (" +
+            "    SELECT COUNT(*) AS active_members FROM members m " +
+            "    WHERE m.is_deleted = false AND EXISTS (" +
+            "        SELECT 1 FROM subscriptions s WHERE s.member_id = m.member_id " +
+            "        AND s.is_deleted = false AND s.payment_status = 'PAID' AND s.end_date >= CURRENT_DATE)" +
+            "), subscription_stats AS (" +
+            "    SELECT COUNT(*) AS total_subscriptions, " +
+            "    COUNT(*) FILTER (WHERE payment_status = 'PAID' AND end_date >= CURRENT_DATE) " +
+            "        AS active_subscriptions, " +
+            "    COUNT(*) FILTER (WHERE payment_status = 'PAID' " +
+            "        AND end_date BETWEEN CURRENT_DATE AND CURRENT_DATE + ?) AS expiring_subscriptions, " +
+            "    COALESCE(SUM(monthly_price) FILTER (WHERE payment_status = 'PAID' " +
+            "        AND created_at >= date_trunc('month', CURRENT_DATE) " +
+            "        AND created_at < date_trunc('month', CURRENT_DATE) + INTERVAL '1 month'), 0) " +
+            "        AS monthly_revenue " +
+            "    FROM subscriptions WHERE is_deleted = false" +
+            ") " +
+            "SELECT CURRENT_DATE AS as_of, total_members, active_members, total_subscriptions, " +
+            "active_subscriptions, expiring_subscriptions, monthly_revenue " +
+            "FROM member_stats, active_member_stats, subscription_stats";
+
+    @Override
+    public DashboardSnapshot getDashboardSnapshot(int expiringWithinDays) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            return readDashboard(conn, expiringWithinDays);
+
+        } catch (SQLException e) {
+            // Zeroed metrics would read as an empty gym, so the caller must see the failure
+            System.err.println("Error getting dashboard snapshot: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    // Dashboard and plan totals from one REPEATABLE READ transaction, so both describe the same
+    // moment. afterSnapshot runs once that moment is fixed; writes committed after it are not seen.
+    @Override
+    public StatisticsTotals getStatisticsTotals(int expiringWithinDays, Runnable afterSnapshot) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            conn.setReadOnly(true);
+            try {
+                // PostgreSQL takes the transaction snapshot at its first statement
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SELECT 1");
+                }
+                afterSnapshot.run();
+
+                DashboardSnapshot dashboard = readDashboard(conn, expiringWithinDays);
+                List<PlanRevenue> plans;
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(SubscriptionDAOImpl.REVENUE_BY_PLAN_SQL)) {
+                    plans = SubscriptionDAOImpl.readPlanRevenue(rs);
+                }
+                conn.commit();
+                return new StatisticsTotals(dashboard, plans);
+            } finally {
+                // The pool only resets auto-commit, so undo the rest before handing the connection back
+                conn.rollback();
+                conn.setReadOnly(false);
+                conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            }
+
+        } catch (SQLException e) {
+            // Zeroed counters would replace good ones, so the caller must see the failure
+            System.err.println("Error getting statistics totals: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private static DashboardSnapshot readDashboard(Connection conn, int expiringWithinDays) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DASHBOARD_SQL)) {
+            pstmt.setInt(1, expiringWithinDays);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (!rs.next()) {
+                throw new SQLException("Dashboard query returned no row");
+            }
+            return new DashboardSnapshot(
+                    rs.getDate("as_of").toLocalDate(),
+                    rs.getInt("total_members"),
+                    rs.getInt("active_members"),
+                    rs.getInt("total_subscriptions"),
+                    rs.getInt("active_subscriptions"),
+                    rs.getInt("expiring_subscriptions"),
+                    expiringWithinDays,
+                    rs.getDouble("monthly_revenue"));
+        }
+    }
+
+    // member_id -> epoch day of the latest end date among its paid, unexpired subscriptions
+    @Override
+    public IntIntMap getLatestPaidEndDays() throws Exception {
+        String sql = "SELECT s.member_id, MAX(s.end_date) FROM subscriptions s " +
+                "JOIN members m ON m.member_id = s.member_id " +
+                "WHERE m.is_deleted = false AND s.is_deleted = false " +
+                "AND s.payment_status = 'PAID' AND s.end_date >= CURRENT_DATE " +
+                "GROUP BY s.member_id";
+
+        IntIntMap latest = new IntIntMap();
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            conn.setAutoCommit(false);
+            stmt.setFetchSize(DatabaseConfig.FETCH_SIZE);
+            ResultSet rs = stmt.executeQuery(sql);
+            while (rs.next()) {
+                latest.put(rs.getInt(1), (int) rs.getDate(2).toLocalDate().toEpochDay(), 0);
+            }
+            conn.commit();
+
+        } catch (SQLException e) {
+            // An empty result would read as "nobody is active", so the caller must see the failure
+            System.err.println("Error getting latest paid end dates: " + e.getMessage());
+            throw e;
+        }
+        return latest;
+    }
+
+    // Epoch day of the member's latest paid, unexpired end date; empty when the member is
+    // deleted or has no such subscription
+    @Override
+    public OptionalInt getLatestPaidEndDay(int memberId) throws Exception {
+        String sql = "SELECT MAX(s.end_date) FROM subscriptions s " +
+                "JOIN members m ON m.member_id = s.member_id " +
+                "WHERE s.member_id = ? AND m.is_deleted = false AND s.is_deleted = false " +
+                "AND s.payment_status = 'PAID' AND s.end_date >= CURRENT_DATE";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, memberId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next() && rs.getDate(1) != null) {
+                return OptionalInt.of((int) rs.getDate(1).toLocalDate().toEpochDay());
+            }
+            return OptionalInt.empty();
+
+        } catch (SQLException e) {
+            // An empty result would mark the member inactive, so the caller must see the failure
+            System.err.println("Error getting latest paid end date: " + e.getMessage());
+            throw e;
+        }
+    }
+}
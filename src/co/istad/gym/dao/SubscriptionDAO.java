@@ -1,16 +1,27 @@
 package co.istad.gym.dao;
 
+import co.istad.gym.model.BulkUpdateResult;
+import co.istad.gym.model.PeriodRevenue;
+import co.istad.gym.model.PlanRevenue;
 import co.istad.gym.model.Subscription;
+import co.istad.gym.model.SubscriptionChange;
+import co.istad.gym.model.TimeBucket;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SubscriptionDAO {
     // CREATE
     int addSubscription(Subscription subscription) throws Exception;
+    List<Integer> addSubscriptions(List<Subscription> subscriptions) throws Exception;
 
     // READ
     List<Subscription> getAllSubscriptions() throws Exception;
+    List<Subscription> getSubscriptionsPage(int afterSubscriptionId, int pageSize) throws Exception;
+    Stream<Subscription> streamAllSubscriptions() throws Exception;
     Optional<Subscription> getSubscriptionById(int subscriptionId) throws Exception;
+    List<Subscription> getSubscriptionsByIds(List<Integer> subscriptionIds) throws Exception;
     List<Subscription> getSubscriptionsByMemberId(int memberId) throws Exception;
     List<Subscription> getActiveSubscriptions() throws Exception;
     List<Subscription> getExpiringSubscriptions(int daysBefore) throws Exception;
@@ -19,15 +30,25 @@ public interface SubscriptionDAO {
     boolean updateSubscription(Subscription subscription) throws Exception;
     boolean renewSubscription(int subscriptionId, int days) throws Exception;
     boolean updatePaymentStatus(int subscriptionId, String status) throws Exception;
+    BulkUpdateResult renewSubscriptions(List<Integer> subscriptionIds, int days, boolean markPaid) throws Exception;
+    BulkUpdateResult updatePaymentStatuses(List<Integer> subscriptionIds, String status) throws Exception;
+
+    // UPDATE, returning the row before and after the write (empty if nothing was updated)
+    Optional<SubscriptionChange> updateSubscriptionReturning(Subscription subscription) throws Exception;
+    Optional<SubscriptionChange> renewSubscriptionReturning(int subscriptionId, int days) throws Exception;
+    Optional<SubscriptionChange> updatePaymentStatusReturning(int subscriptionId, String status) throws Exception;
+    Optional<SubscriptionChange> softDeleteSubscriptionReturning(int subscriptionId) throws Exception;
 
     // DELETE
     boolean softDeleteSubscription(int subscriptionId) throws Exception;
 
     // SEARCH
-    List<Subscription> searchSubscriptions(String memberName, String paymentStatus) throws Exception;
+    List<Subscription> searchSubscriptions(String memberName, String paymentStatus, int planId) throws Exception;
 
     // STATISTICS
     int countSubscriptions() throws Exception;
     int countActiveSubscriptions() throws Exception;
     double calculateMonthlyRevenue() throws Exception;
+    List<PlanRevenue> getRevenueByPlan() throws Exception;
+    List<PeriodRevenue> getRevenueByPeriod(TimeBucket bucket, LocalDate from, LocalDate to) throws Exception;
 }
\ No newline at end of file
@@ -1,35 +1,46 @@
 package co.istad.gym.dao;
 
 import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.metrics.DaoMetrics;
 import co.istad.gym.dao.SubscriptionDAO;
+import co.istad.gym.model.BulkUpdateResult;
+import co.istad.gym.model.PeriodRevenue;
+import co.istad.gym.model.PlanRevenue;
 import co.istad.gym.model.Subscription;
+import co.istad.gym.model.SubscriptionChange;
+import co.istad.gym.model.TimeBucket;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class SubscriptionDAOImpl implements SubscriptionDAO {
+    private static final String COLUMNS = SubscriptionRowMapper.INSTANCE.columns();
+    // Shared with the statistics reconcile, which reads it inside its own snapshot
+    static final String REVENUE_BY_PLAN_SQL =
+            "SELECT t.plan_id, COALESCE(p.plan_name, t.plan_name), t.subscriptions, t.revenue FROM (" +
+            "SELECT plan_id, MIN(plan_name) AS plan_name, COUNT(*) AS subscriptions, " +
+            "COALESCE(SUM(monthly_price), 0) AS revenue " +
+            "FROM subscriptions WHERE is_deleted = false " +
+            "AND payment_status = 'PAID' AND end_date >= CURRENT_DATE " +
+            "GROUP BY plan_id) t " +
+            "LEFT JOIN plans p ON p.plan_id = t.plan_id ORDER BY t.plan_id";
 
     @Override
     public int addSubscription(Subscription subscription) throws Exception {
-        String sql = "INSERT INTO subscriptions (member_id, plan_name, monthly_price, " +
+        String sql = "INSERT INTO subscriptions (member_id, plan_id, plan_name, monthly_price, " +
                 "start_date, end_date, payment_status, created_at, updated_at, is_deleted) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING subscription_id";
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING subscription_id";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setInt(1, subscription.getMemberId());
-            pstmt.setString(2, subscription.getPlanName());
-            pstmt.setDouble(3, subscription.getMonthlyPrice());
-            pstmt.setDate(4, Date.valueOf(subscription.getStartDate()));
-            pstmt.setDate(5, Date.valueOf(subscription.getEndDate()));
-            pstmt.setString(6, subscription.getPaymentStatus());
-            pstmt.setTimestamp(7, Timestamp.valueOf(subscription.getCreatedAt()));
-            pstmt.setTimestamp(8, Timestamp.valueOf(subscription.getUpdatedAt()));
-            pstmt.setBoolean(9, subscription.isDeleted());
+            setInsertParameters(pstmt, subscription);
 
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
@@ -37,35 +48,117 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error adding subscription: " + e.getMessage());
             e.printStackTrace();
         }
         return -1;
     }
 
+    @Override
+    public List<Integer> addSubscriptions(List<Subscription> subscriptions) throws Exception {
+        List<Integer> subscriptionIds = new ArrayList<>(subscriptions.size());
+        String sql = "INSERT INTO subscriptions (member_id, plan_id, plan_name, monthly_price, " +
+                "start_date, end_date, payment_status, created_at, updated_at, is_deleted) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, new String[]{"subscription_id"})) {
+
+            conn.setAutoCommit(false);
+
+            // One transaction per chunk: a failed chunk rolls back alone and earlier chunks stay committed
+            for (int start = 0; start < subscriptions.size(); start += DatabaseConfig.BATCH_SIZE) {
+                List<Subscription> chunk = subscriptions.subList(start,
+                        Math.min(start + DatabaseConfig.BATCH_SIZE, subscriptions.size()));
+                List<Integer> chunkIds = new ArrayList<>(chunk.size());
+
+                try {
+                    for (Subscription subscription : chunk) {
+                        setInsertParameters(pstmt, subscription);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            chunkIds.add(keys.getInt(1));
+                        }
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+                subscriptionIds.addAll(chunkIds);
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error adding subscriptions in batch (" + subscriptionIds.size() + " committed): " + e.getMessage());
+            e.printStackTrace();
+        }
+        return subscriptionIds;
+    }
+
     @Override
     public List<Subscription> getAllSubscriptions() throws Exception {
         List<Subscription> subscriptions = new ArrayList<>();
-        String sql = "SELECT * FROM subscriptions WHERE is_deleted = false ORDER BY subscription_id";
+        String sql = "SELECT " + COLUMNS + " FROM subscriptions WHERE is_deleted = false ORDER BY subscription_id";
 
         try (Connection conn = DatabaseConfig.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
+            RowMapper<Subscription> mapper = SubscriptionRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                subscriptions.add(mapResultSetToSubscription(rs));
+                subscriptions.add(mapper.map(rs));
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error getting all subscriptions: " + e.getMessage());
             e.printStackTrace();
         }
         return subscriptions;
     }
 
+    @Override
+    public List<Subscription> getSubscriptionsPage(int afterSubscriptionId, int pageSize) throws Exception {
+        List<Subscription> subscriptions = new ArrayList<>(pageSize);
+        // Keyset pagination: seek past the last id seen instead of using OFFSET
+        String sql = "SELECT " + COLUMNS + " FROM subscriptions WHERE is_deleted = false AND subscription_id > ? " +
+                "ORDER BY subscription_id LIMIT ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterSubscriptionId);
+            pstmt.setInt(2, pageSize);
+            ResultSet rs = pstmt.executeQuery();
+
+            RowMapper<Subscription> mapper = SubscriptionRowMapper.INSTANCE.bind(rs);
+            while (rs.next()) {
+                subscriptions.add(mapper.map(rs));
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error getting subscriptions page: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return subscriptions;
+    }
+
+    @Override
+    public Stream<Subscription> streamAllSubscriptions() throws Exception {
+        String sql = "SELECT " + COLUMNS + " FROM subscriptions WHERE is_deleted = false ORDER BY subscription_id";
+        return CursorStream.open(sql, SubscriptionRowMapper.INSTANCE);
+    }
+
     @Override
     public Optional<Subscription> getSubscriptionById(int subscriptionId) throws Exception {
-        String sql = "SELECT * FROM subscriptions WHERE subscription_id = ? AND is_deleted = false";
+        String sql = "SELECT " + COLUMNS + " FROM subscriptions WHERE subscription_id = ? AND is_deleted = false";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -74,20 +167,49 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                return Optional.of(mapResultSetToSubscription(rs));
+                return Optional.of(SubscriptionRowMapper.INSTANCE.bind(rs).map(rs));
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error getting subscription by ID: " + e.getMessage());
             e.printStackTrace();
         }
         return Optional.empty();
     }
 
+    @Override
+    public List<Subscription> getSubscriptionsByIds(List<Integer> subscriptionIds) throws Exception {
+        List<Subscription> subscriptions = new ArrayList<>(subscriptionIds.size());
+        if (subscriptionIds.isEmpty()) {
+            return subscriptions;
+        }
+        String sql = "SELECT " + COLUMNS + " FROM subscriptions WHERE subscription_id = ANY(?) AND is_deleted = false " +
+                "ORDER BY subscription_id";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setArray(1, conn.createArrayOf("integer", subscriptionIds.toArray(new Integer[0])));
+            ResultSet rs = pstmt.executeQuery();
+
+            RowMapper<Subscription> mapper = SubscriptionRowMapper.INSTANCE.bind(rs);
+            while (rs.next()) {
+                subscriptions.add(mapper.map(rs));
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error getting subscriptions by IDs: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return subscriptions;
+    }
+
     @Override
     public List<Subscription> getSubscriptionsByMemberId(int memberId) throws Exception {
         List<Subscription> subscriptions = new ArrayList<>();
-        String sql = "SELECT * FROM subscriptions WHERE member_id = ? AND is_deleted = false " +
+        String sql = "SELECT " + COLUMNS + " FROM subscriptions WHERE member_id = ? AND is_deleted = false " +
                 "ORDER BY start_date DESC";
 
         try (Connection conn = DatabaseConfig.getConnection();
@@ -96,11 +218,13 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
             pstmt.setInt(1, memberId);
             ResultSet rs = pstmt.executeQuery();
 
+            RowMapper<Subscription> mapper = SubscriptionRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                subscriptions.add(mapResultSetToSubscription(rs));
+                subscriptions.add(mapper.map(rs));
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error getting subscriptions by member ID: " + e.getMessage());
             e.printStackTrace();
         }
@@ -110,21 +234,26 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
     @Override
     public List<Subscription> getActiveSubscriptions() throws Exception {
         List<Subscription> subscriptions = new ArrayList<>();
-        String sql = "SELECT * FROM subscriptions WHERE is_deleted = false " +
+        String sql = "SELECT " + COLUMNS + " FROM subscriptions WHERE is_deleted = false " +
                 "AND payment_status = 'PAID' AND end_date >= CURRENT_DATE " +
                 "ORDER BY end_date";
 
         try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             Statement stmt = conn.createStatement()) {
 
+            conn.setAutoCommit(false);
+            stmt.setFetchSize(DatabaseConfig.FETCH_SIZE);
+            ResultSet rs = stmt.executeQuery(sql);
+            RowMapper<Subscription> mapper = SubscriptionRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                subscriptions.add(mapResultSetToSubscription(rs));
+                subscriptions.add(mapper.map(rs));
             }
+            conn.commit();
 
         } catch (SQLException e) {
+            // An empty result would read as "nothing is due to expire", so the caller must see the failure
             System.err.println("Error getting active subscriptions: " + e.getMessage());
-            e.printStackTrace();
+            throw e;
         }
         return subscriptions;
     }
@@ -132,20 +261,23 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
     @Override
     public List<Subscription> getExpiringSubscriptions(int daysBefore) throws Exception {
         List<Subscription> subscriptions = new ArrayList<>();
-        String sql = "SELECT * FROM subscriptions WHERE is_deleted = false " +
-                "AND payment_status = 'PAID' AND end_date BETWEEN CURRENT_DATE " +
-                "AND CURRENT_DATE + INTERVAL '" + daysBefore + " days' " +
+        String sql = "SELECT " + COLUMNS + " FROM subscriptions WHERE is_deleted = false " +
+                "AND payment_status = 'PAID' AND end_date BETWEEN CURRENT_DATE AND CURRENT_DATE + ? " +
                 "ORDER BY end_date";
 
         try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, daysBefore);
+            ResultSet rs = pstmt.executeQuery();
 
+            RowMapper<Subscription> mapper = SubscriptionRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                subscriptions.add(mapResultSetToSubscription(rs));
+                subscriptions.add(mapper.map(rs));
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error getting expiring subscriptions: " + e.getMessage());
             e.printStackTrace();
         }
@@ -154,54 +286,70 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
 
     @Override
     public boolean updateSubscription(Subscription subscription) throws Exception {
-        String sql = "UPDATE subscriptions SET plan_name = ?, monthly_price = ?, " +
-                "start_date = ?, end_date = ?, payment_status = ?, updated_at = ? " +
-                "WHERE subscription_id = ? AND is_deleted = false";
+        return updateSubscriptionReturning(subscription).isPresent();
+    }
+
+    @Override
+    public Optional<SubscriptionChange> updateSubscriptionReturning(Subscription subscription) throws Exception {
+        String sql = updateReturningChanges("plan_id = ?, plan_name = ?, monthly_price = ?, " +
+                "start_date = ?, end_date = ?, payment_status = ?, updated_at = ?", "subscription_id = ?");
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, subscription.getPlanName());
-            pstmt.setDouble(2, subscription.getMonthlyPrice());
-            pstmt.setDate(3, Date.valueOf(subscription.getStartDate()));
-            pstmt.setDate(4, Date.valueOf(subscription.getEndDate()));
-            pstmt.setString(5, subscription.getPaymentStatus());
-            pstmt.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
-            pstmt.setInt(7, subscription.getSubscriptionId());
+            setPlanId(pstmt, 1, subscription.getPlanId());
+            pstmt.setString(2, subscription.getPlanName());
+            pstmt.setDouble(3, subscription.getMonthlyPrice());
+            pstmt.setDate(4, Date.valueOf(subscription.getStartDate()));
+            pstmt.setDate(5, Date.valueOf(subscription.getEndDate()));
+            pstmt.setString(6, subscription.getPaymentStatus());
+            pstmt.setTimestamp(7, Timestamp.valueOf(LocalDateTime.now()));
+            pstmt.setInt(8, subscription.getSubscriptionId());
 
-            return pstmt.executeUpdate() > 0;
+            return readChange(pstmt);
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error updating subscription: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return Optional.empty();
         }
     }
 
     @Override
     public boolean renewSubscription(int subscriptionId, int days) throws Exception {
-        String sql = "UPDATE subscriptions SET end_date = end_date + INTERVAL '" + days + " days', " +
-                "updated_at = ? WHERE subscription_id = ? AND is_deleted = false";
+        return renewSubscriptionReturning(subscriptionId, days).isPresent();
+    }
+
+    @Override
+    public Optional<SubscriptionChange> renewSubscriptionReturning(int subscriptionId, int days) throws Exception {
+        String sql = updateReturningChanges("end_date = s.end_date + ?, updated_at = ?", "subscription_id = ?");
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
-            pstmt.setInt(2, subscriptionId);
+            pstmt.setInt(1, days);
+            pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            pstmt.setInt(3, subscriptionId);
 
-            return pstmt.executeUpdate() > 0;
+            return readChange(pstmt);
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error renewing subscription: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return Optional.empty();
         }
     }
 
     @Override
     public boolean updatePaymentStatus(int subscriptionId, String status) throws Exception {
-        String sql = "UPDATE subscriptions SET payment_status = ?, updated_at = ? " +
-                "WHERE subscription_id = ? AND is_deleted = false";
+        return updatePaymentStatusReturning(subscriptionId, status).isPresent();
+    }
+
+    @Override
+    public Optional<SubscriptionChange> updatePaymentStatusReturning(int subscriptionId, String status) throws Exception {
+        String sql = updateReturningChanges("payment_status = ?, updated_at = ?", "subscription_id = ?");
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -210,19 +358,72 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
             pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
             pstmt.setInt(3, subscriptionId);
 
-            return pstmt.executeUpdate() > 0;
+            return readChange(pstmt);
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error updating payment status: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    // Set-based: one statement (and so one transaction) for every id, returning the updated rows
+    @Override
+    public BulkUpdateResult renewSubscriptions(List<Integer> subscriptionIds, int days, boolean markPaid) throws Exception {
+        String sql = updateReturningChanges("end_date = s.end_date + ?, " +
+                "payment_status = CASE WHEN ? THEN 'PAID' ELSE s.payment_status END, updated_at = ?",
+                "subscription_id = ANY(?)");
+        long startNanos = System.nanoTime();
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, days);
+            pstmt.setBoolean(2, markPaid);
+            pstmt.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            pstmt.setArray(4, conn.createArrayOf("integer", subscriptionIds.toArray(new Integer[0])));
+
+            return new BulkUpdateResult(subscriptionIds, readChanges(pstmt), System.nanoTime() - startNanos);
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error renewing subscriptions: " + e.getMessage());
+            e.printStackTrace();
+            return new BulkUpdateResult(subscriptionIds, new ArrayList<>(), System.nanoTime() - startNanos);
+        }
+    }
+
+    @Override
+    public BulkUpdateResult updatePaymentStatuses(List<Integer> subscriptionIds, String status) throws Exception {
+        String sql = updateReturningChanges("payment_status = ?, updated_at = ?", "subscription_id = ANY(?)");
+        long startNanos = System.nanoTime();
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, status);
+            pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            pstmt.setArray(3, conn.createArrayOf("integer", subscriptionIds.toArray(new Integer[0])));
+
+            return new BulkUpdateResult(subscriptionIds, readChanges(pstmt), System.nanoTime() - startNanos);
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error updating payment statuses: " + e.getMessage());
+            e.printStackTrace();
+            return new BulkUpdateResult(subscriptionIds, new ArrayList<>(), System.nanoTime() - startNanos);
         }
     }
 
     @Override
     public boolean softDeleteSubscription(int subscriptionId) throws Exception {
-        String sql = "UPDATE subscriptions SET is_deleted = true, updated_at = ? " +
-                "WHERE subscription_id = ?";
+        return softDeleteSubscriptionReturning(subscriptionId).isPresent();
+    }
+
+    @Override
+    public Optional<SubscriptionChange> softDeleteSubscriptionReturning(int subscriptionId) throws Exception {
+        String sql = updateReturningChanges("is_deleted = true, updated_at = ?", "subscription_id = ?");
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -230,20 +431,21 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
             pstmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
             pstmt.setInt(2, subscriptionId);
 
-            return pstmt.executeUpdate() > 0;
+            return readChange(pstmt);
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error soft deleting subscription: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return Optional.empty();
         }
     }
 
     @Override
-    public List<Subscription> searchSubscriptions(String memberName, String paymentStatus) throws Exception {
+    public List<Subscription> searchSubscriptions(String memberName, String paymentStatus, int planId) throws Exception {
         List<Subscription> subscriptions = new ArrayList<>();
         StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder.append("SELECT s.* FROM subscriptions s ");
+        sqlBuilder.append("SELECT ").append(SubscriptionRowMapper.INSTANCE.columns("s")).append(" FROM subscriptions s ");
         sqlBuilder.append("JOIN members m ON s.member_id = m.member_id ");
         sqlBuilder.append("WHERE s.is_deleted = false AND m.is_deleted = false ");
 
@@ -251,8 +453,8 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
 
         if (memberName != null && !memberName.isEmpty()) {
             sqlBuilder.append("AND (m.first_name ILIKE ? OR m.last_name ILIKE ?) ");
-            params.add("%" + memberName + "%");
-            params.add("%" + memberName + "%");
+            params.add(MemberDAOImpl.containsPattern(memberName));
+            params.add(MemberDAOImpl.containsPattern(memberName));
         }
 
         if (paymentStatus != null && !paymentStatus.isEmpty()) {
@@ -260,6 +462,11 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
             params.add(paymentStatus);
         }
 
+        if (planId > 0) {
+            sqlBuilder.append("AND s.plan_id = ? ");
+            params.add(planId);
+        }
+
         sqlBuilder.append("ORDER BY s.subscription_id");
 
         try (Connection conn = DatabaseConfig.getConnection();
@@ -270,11 +477,13 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
             }
 
             ResultSet rs = pstmt.executeQuery();
+            RowMapper<Subscription> mapper = SubscriptionRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                subscriptions.add(mapResultSetToSubscription(rs));
+                subscriptions.add(mapper.map(rs));
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error searching subscriptions: " + e.getMessage());
             e.printStackTrace();
         }
@@ -294,6 +503,7 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error counting subscriptions: " + e.getMessage());
             e.printStackTrace();
         }
@@ -314,6 +524,7 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error counting active subscriptions: " + e.getMessage());
             e.printStackTrace();
         }
@@ -324,8 +535,8 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
     public double calculateMonthlyRevenue() throws Exception {
         String sql = "SELECT COALESCE(SUM(monthly_price), 0) FROM subscriptions " +
                 "WHERE is_deleted = false AND payment_status = 'PAID' " +
-                "AND EXTRACT(MONTH FROM created_at) = EXTRACT(MONTH FROM CURRENT_DATE) " +
-                "AND EXTRACT(YEAR FROM created_at) = EXTRACT(YEAR FROM CURRENT_DATE)";
+                "AND created_at >= date_trunc('month', CURRENT_DATE) " +
+                "AND created_at < date_trunc('month', CURRENT_DATE) + INTERVAL '1 month'";
 
         try (Connection conn = DatabaseConfig.getConnection();
              Statement stmt = conn.createStatement();
@@ -336,25 +547,123 @@ public class SubscriptionDAOImpl implements SubscriptionDAO {
             }
 
         } catch (SQLException e) {
+            DaoMetrics.recordError();
             System.err.println("Error calculating monthly revenue: " + e.getMessage());
             e.printStackTrace();
         }
         return 0.0;
     }
 
-    private Subscription mapResultSetToSubscription(ResultSet rs) throws SQLException {
-        Subscription subscription = new Subscription();
-        subscription.setSubscriptionId(rs.getInt("subscription_id"));
-        subscription.setMemberId(rs.getInt("member_id"));
-        subscription.setPlanName(rs.getString("plan_name"));
-        subscription.setMonthlyPrice(rs.getDouble("monthly_price"));
-        subscription.setStartDate(rs.getDate("start_date").toLocalDate());
-        subscription.setEndDate(rs.getDate("end_date").toLocalDate());
-        subscription.setPaymentStatus(rs.getString("payment_status"));
-        subscription.setDeleted(rs.getBoolean("is_deleted"));
-        subscription.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        subscription.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-
-        return subscription;
+    // Active (paid, unexpired) subscriptions per plan, grouped on plan_id in the database
+    @Override
+    public List<PlanRevenue> getRevenueByPlan() throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(REVENUE_BY_PLAN_SQL)) {
+
+            return readPlanRevenue(rs);
+
+        } catch (SQLException e) {
+            // An empty list would wipe every plan total, so the caller must see the failure
+            System.err.println("Error getting revenue by plan: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    static List<PlanRevenue> readPlanRevenue(ResultSet rs) throws SQLException {
+        List<PlanRevenue> totals = new ArrayList<>();
+        while (rs.next()) {
+            totals.add(new PlanRevenue(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getDouble(4)));
+        }
+        return totals;
+    }
+
+    // Paid subscriptions by creation period, one entry per period from..to (empty periods included)
+    @Override
+    public List<PeriodRevenue> getRevenueByPeriod(TimeBucket bucket, LocalDate from, LocalDate to) throws Exception {
+        LocalDate first = bucket.truncate(from);
+        LocalDate end = bucket.next(bucket.truncate(to));
+        String sql = "SELECT date_trunc(?, created_at)::date AS period_start, COUNT(*) AS subscriptions, " +
+                "COALESCE(SUM(monthly_price), 0) AS revenue " +
+                "FROM subscriptions WHERE is_deleted = false AND payment_status = 'PAID' " +
+                "AND created_at >= ? AND created_at < ? " +
+                "GROUP BY 1";
+
+        Map<LocalDate, PeriodRevenue> byPeriod = new HashMap<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, bucket.getSqlUnit());
+            pstmt.setTimestamp(2, Timestamp.valueOf(first.atStartOfDay()));
+            pstmt.setTimestamp(3, Timestamp.valueOf(end.atStartOfDay()));
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                LocalDate periodStart = rs.getDate(1).toLocalDate();
+                byPeriod.put(periodStart, new PeriodRevenue(periodStart, rs.getInt(2), rs.getDouble(3)));
+            }
+
+        } catch (SQLException e) {
+            DaoMetrics.recordError();
+            System.err.println("Error getting revenue by period: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        List<PeriodRevenue> periods = new ArrayList<>();
+        for (LocalDate period = first; period.isBefore(end); period = bucket.next(period)) {
+            periods.add(byPeriod.getOrDefault(period, new PeriodRevenue(period, 0, 0.0)));
+        }
+        return periods;
+    }
+
+    // Locks and reads the live rows in the same statement that updates them, so each
+    // returned before/after pair describes exactly this write. Column references in
+    // the SET expressions must be qualified with "s", as "prev" has the same columns.
+    private static String updateReturningChanges(String set, String where) {
+        SubscriptionRowMapper mapper = SubscriptionRowMapper.INSTANCE;
+        return "UPDATE subscriptions s SET " + set + " " +
+                "FROM (SELECT " + COLUMNS + " FROM subscriptions " +
+                "WHERE " + where + " AND is_deleted = false FOR UPDATE) prev " +
+                "WHERE s.subscription_id = prev.subscription_id " +
+                "RETURNING " + mapper.columns("prev") + ", " + mapper.columns("s");
+    }
+
+    private static List<SubscriptionChange> readChanges(PreparedStatement pstmt) throws SQLException {
+        List<SubscriptionChange> changes = new ArrayList<>();
+        RowMapper<Subscription> before = SubscriptionRowMapper.INSTANCE.bindAt(0);
+        RowMapper<Subscription> after = SubscriptionRowMapper.INSTANCE.bindAt(SubscriptionRowMapper.INSTANCE.size());
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                changes.add(new SubscriptionChange(before.map(rs), after.map(rs)));
+            }
+        }
+        return changes;
+    }
+
+    private static Optional<SubscriptionChange> readChange(PreparedStatement pstmt) throws SQLException {
+        List<SubscriptionChange> changes = readChanges(pstmt);
+        return changes.isEmpty() ? Optional.empty() : Optional.of(changes.get(0));
+    }
+
+    private void setInsertParameters(PreparedStatement pstmt, Subscription subscription) throws SQLException {
+        pstmt.setInt(1, subscription.getMemberId());
+        setPlanId(pstmt, 2, subscription.getPlanId());
+        pstmt.setString(3, subscription.getPlanName());
+        pstmt.setDouble(4, subscription.getMonthlyPrice());
+        pstmt.setDate(5, Date.valueOf(subscription.getStartDate()));
+        pstmt.setDate(6, Date.valueOf(subscription.getEndDate()));
+        pstmt.setString(7, subscription.getPaymentStatus());
+        pstmt.setTimestamp(8, Timestamp.valueOf(subscription.getCreatedAt()));
+        pstmt.setTimestamp(9, Timestamp.valueOf(subscription.getUpdatedAt()));
+        pstmt.setBoolean(10, subscription.isDeleted());
+    }
+
+    // 0 means no plan; such rows are linked later by PlanDAO.linkSubscriptions
+    private static void setPlanId(PreparedStatement pstmt, int index, int planId) throws SQLException {
+        if (planId > 0) {
+            pstmt.setInt(index, planId);
+        } else {
+            pstmt.setNull(index, Types.INTEGER);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.Subscription;
+
+// Notified after a subscription write has been committed.
+public interface SubscriptionListener {
+    default void onSubscriptionAdded(Subscription subscription) {}
+
+    default void onSubscriptionChanged(Subscription before, Subscription after) {}
+
+    default void onSubscriptionRemoved(Subscription before) {}
+
+    // Rows changed outside the DAO (bulk loads); listeners should rebuild
+    default void onBulkChange() {}
+}
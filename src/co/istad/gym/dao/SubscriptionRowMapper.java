@@ -0,0 +1,45 @@
+package co.istad.gym.dao;
+
+import co.istad.gym.model.Subscription;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class SubscriptionRowMapper extends OrdinalRowMapper<Subscription> {
+    public static final SubscriptionRowMapper INSTANCE = new SubscriptionRowMapper();
+
+    // Positions in the column list below
+    private static final int SUBSCRIPTION_ID = 0;
+    private static final int MEMBER_ID = 1;
+    private static final int PLAN_ID = 2;
+    private static final int PLAN_NAME = 3;
+    private static final int MONTHLY_PRICE = 4;
+    private static final int START_DATE = 5;
+    private static final int END_DATE = 6;
+    private static final int PAYMENT_STATUS = 7;
+    private static final int CREATED_AT = 8;
+    private static final int UPDATED_AT = 9;
+    private static final int IS_DELETED = 10;
+
+    private SubscriptionRowMapper() {
+        super("subscription_id", "member_id", "plan_id", "plan_name", "monthly_price", "start_date",
+                "end_date", "payment_status", "created_at", "updated_at", "is_deleted");
+    }
+
+    @Override
+    protected Subscription map(ResultSet rs, int[] c) throws SQLException {
+        Subscription subscription = new Subscription();
+        subscription.setSubscriptionId(rs.getInt(c[SUBSCRIPTION_ID]));
+        subscription.setMemberId(rs.getInt(c[MEMBER_ID]));
+        subscription.setPlanId(rs.getInt(c[PLAN_ID]));
+        subscription.setPlanName(rs.getString(c[PLAN_NAME]));
+        subscription.setMonthlyPrice(rs.getDouble(c[MONTHLY_PRICE]));
+        subscription.setStartDate(rs.getDate(c[START_DATE]).toLocalDate());
+        subscription.setEndDate(rs.getDate(c[END_DATE]).toLocalDate());
+        subscription.setPaymentStatus(rs.getString(c[PAYMENT_STATUS]));
+        subscription.setDeleted(rs.getBoolean(c[IS_DELETED]));
+        subscription.setCreatedAt(rs.getTimestamp(c[CREATED_AT]).toLocalDateTime());
+        subscription.setUpdatedAt(rs.getTimestamp(c[UPDATED_AT]).toLocalDateTime());
+
+        return subscription;
+    }
+}
@@ -0,0 +1,14 @@
+package co.istad.gym.expiry;
+
+import co.istad.gym.model.Subscription;
+import java.time.LocalDate;
+import java.util.List;
+
+// Called from the expiry scheduler thread as each day rolls over.
+public interface ExpiryListener {
+    // Paid subscriptions whose last valid day was the day before today
+    default void onSubscriptionsExpired(LocalDate today, List<Subscription> expired) {}
+
+    // Paid subscriptions that end exactly daysLeft days from today
+    default void onSubscriptionsNearExpiry(LocalDate today, int daysLeft, List<Subscription> expiring) {}
+}
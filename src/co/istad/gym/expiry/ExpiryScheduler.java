@@ -0,0 +1,390 @@
+package co.istad.gym.expiry;
+
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.dao.SubscriptionDAO;
+import co.istad.gym.dao.SubscriptionListener;
+import co.istad.gym.model.Subscription;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Day-bucketed index of paid, unexpired subscriptions keyed by end date. It is
+// loaded once, follows SubscriptionDAO writes, and a timer at each midnight
+// drops the buckets that just expired and tells listeners which subscriptions
+// expired and which are coming up. "Expiring in N days" reads N + 1 buckets.
+public class ExpiryScheduler implements SubscriptionListener {
+    // Near-expiry events are sent this many days ahead, e.g. -Dgym.expiry.noticeDays=7,1
+    private static final int[] NOTICE_DAYS = parseDays(System.getProperty("gym.expiry.noticeDays", "7,1"));
+    private static final long RETRY_DELAY_SECONDS = Long.getLong("gym.expiry.retrySeconds", 30L);
+
+    private static final ExpiryScheduler INSTANCE = new ExpiryScheduler(DAOFactory.getSubscriptionDAO());
+
+    private final SubscriptionDAO subscriptionDAO;
+    private final List<ExpiryListener> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ScheduledExecutorService scheduler;
+    private boolean retryScheduled;
+
+    // Guarded by lock
+    private Buckets buckets = new Buckets();
+    private LocalDate currentDay;
+    private boolean ready;
+    private List<Runnable> pendingDuringBuild;
+
+    ExpiryScheduler(SubscriptionDAO subscriptionDAO) {
+        this.subscriptionDAO = subscriptionDAO;
+    }
+
+    public static ExpiryScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        DAOFactory.addSubscriptionListener(this);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gym-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.execute(this::rebuildQuietly);
+        scheduleRollover();
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            retryScheduled = false;
+        }
+    }
+
+    public void addListener(ExpiryListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ExpiryListener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return buckets.dayBySubscription.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Paid subscriptions ending between today and today + days, by end date.
+    // Falls back to the database until the index has been loaded.
+    public List<Subscription> getExpiringSubscriptions(int days) throws Exception {
+        LocalDate today = LocalDate.now();
+        lock.readLock().lock();
+        try {
+            if (ready) {
+                List<Subscription> expiring = new ArrayList<>();
+                for (Map<Integer, Subscription> bucket : window(today, days).values()) {
+                    for (Subscription subscription : bucket.values()) {
+                        expiring.add(new Subscription(subscription));
+                    }
+                }
+                return expiring;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return subscriptionDAO.getExpiringSubscriptions(days);
+    }
+
+    public int countExpiringSubscriptions(int days) throws Exception {
+        LocalDate today = LocalDate.now();
+        lock.readLock().lock();
+        try {
+            if (ready) {
+                int count = 0;
+                for (Map<Integer, Subscription> bucket : window(today, days).values()) {
+                    count += bucket.size();
+                }
+                return count;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return subscriptionDAO.getExpiringSubscriptions(days).size();
+    }
+
+    public void rebuild() throws Exception {
+        lock.writeLock().lock();
+        try {
+            pendingDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LocalDate today = LocalDate.now();
+        Buckets fresh = new Buckets();
+        try {
+            for (Subscription subscription : subscriptionDAO.getActiveSubscriptions()) {
+                fresh.add(subscription, today);
+            }
+        } catch (Exception | Error e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Writes that raced with the load are replayed on top of the new index
+            List<Runnable> pending = pendingDuringBuild;
+            pendingDuringBuild = null;
+            buckets = fresh;
+            currentDay = today;
+            for (Runnable change : pending) {
+                change.run();
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Advances the index to today, one day at a time, and fires the events for each day
+    public void rollover() {
+        LocalDate today = LocalDate.now();
+        List<Runnable> events = new ArrayList<>();
+
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            while (currentDay.isBefore(today)) {
+                LocalDate day = currentDay.plusDays(1);
+                currentDay = day;
+
+                List<Subscription> expired = buckets.removeBefore(day);
+                if (!expired.isEmpty()) {
+                    events.add(() -> fireExpired(day, expired));
+                }
+                for (int daysLeft : NOTICE_DAYS) {
+                    Map<Integer, Subscription> bucket = buckets.byDay.get(day.plusDays(daysLeft).toEpochDay());
+                    if (bucket != null && !bucket.isEmpty()) {
+                        List<Subscription> expiring = copies(bucket);
+                        events.add(() -> fireNearExpiry(day, daysLeft, expiring));
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Listeners run outside the lock so they may query the index
+        for (Runnable event : events) {
+            event.run();
+        }
+    }
+
+    // SUBSCRIPTION EVENTS
+    @Override
+    public void onSubscriptionAdded(Subscription subscription) {
+        apply(() -> buckets.add(subscription, currentDay));
+    }
+
+    @Override
+    public void onSubscriptionChanged(Subscription before, Subscription after) {
+        // Renewals, payment status changes and edits all land here
+        apply(() -> {
+            buckets.remove(after.getSubscriptionId());
+            buckets.add(after, currentDay);
+        });
+    }
+
+    @Override
+    public void onSubscriptionRemoved(Subscription before) {
+        apply(() -> buckets.remove(before.getSubscriptionId()));
+    }
+
+    @Override
+    public void onBulkChange() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+        }
+        if (current != null) {
+            current.execute(this::rebuildQuietly);
+        }
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (currentDay != null) {
+                change.run();
+            }
+            if (pendingDuringBuild != null) {
+                pendingDuringBuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private NavigableMap<Long, Map<Integer, Subscription>> window(LocalDate today, int days) {
+        return buckets.byDay.subMap(today.toEpochDay(), true, today.plusDays(Math.max(0, days)).toEpochDay(), true);
+    }
+
+    private synchronized void scheduleRollover() {
+        if (scheduler == null) {
+            return;
+        }
+        // Recomputed every day, so clock and DST changes are picked up
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextMidnight = now.toLocalDate().plusDays(1).atStartOfDay();
+        long delayMillis = Duration.between(now, nextMidnight).toMillis() + 1000;
+        scheduler.schedule(() -> {
+            try {
+                rollover();
+            } catch (RuntimeException e) {
+                System.err.println("Error rolling over subscription expiry: " + e.getMessage());
+            } finally {
+                scheduleRollover();
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            System.err.println("Error loading subscription expiry index: " + e.getMessage());
+            scheduleRetry();
+        }
+    }
+
+    // Until a load succeeds the index is missing or stale, so keep trying rather than wait for the next write
+    private synchronized void scheduleRetry() {
+        if (scheduler == null || retryScheduled) {
+            return;
+        }
+        retryScheduled = true;
+        scheduler.schedule(() -> {
+            synchronized (this) {
+                retryScheduled = false;
+            }
+            rebuildQuietly();
+        }, RETRY_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void fireExpired(LocalDate today, List<Subscription> expired) {
+        for (ExpiryListener listener : listeners) {
+            try {
+                listener.onSubscriptionsExpired(today, expired);
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying expiry listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private void fireNearExpiry(LocalDate today, int daysLeft, List<Subscription> expiring) {
+        for (ExpiryListener listener : listeners) {
+            try {
+                listener.onSubscriptionsNearExpiry(today, daysLeft, expiring);
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying expiry listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private static List<Subscription> copies(Map<Integer, Subscription> bucket) {
+        List<Subscription> list = new ArrayList<>(bucket.size());
+        for (Subscription subscription : bucket.values()) {
+            list.add(new Subscription(subscription));
+        }
+        return list;
+    }
+
+    private static int[] parseDays(String value) {
+        String[] parts = value.split(",");
+        int[] days = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            days[i] = Integer.parseInt(parts[i].trim());
+        }
+        return days;
+    }
+
+    private static class Buckets {
+        // epoch day of end_date -> subscriptions ending that day
+        private final TreeMap<Long, Map<Integer, Subscription>> byDay = new TreeMap<>();
+        private final Map<Integer, Long> dayBySubscription = new HashMap<>();
+
+        // Only paid, live subscriptions that have not yet ended are tracked
+        void add(Subscription subscription, LocalDate today) {
+            if (subscription.isDeleted() || !"PAID".equals(subscription.getPaymentStatus())
+                    || subscription.getEndDate() == null || subscription.getEndDate().isBefore(today)) {
+                return;
+            }
+            long day = subscription.getEndDate().toEpochDay();
+            byDay.computeIfAbsent(day, k -> new LinkedHashMap<>())
+                    .put(subscription.getSubscriptionId(), new Subscription(subscription));
+            dayBySubscription.put(subscription.getSubscriptionId(), day);
+        }
+
+        void remove(int subscriptionId) {
+            Long day = dayBySubscription.remove(subscriptionId);
+            if (day == null) {
+                return;
+            }
+            Map<Integer, Subscription> bucket = byDay.get(day);
+            if (bucket != null) {
+                bucket.remove(subscriptionId);
+                if (bucket.isEmpty()) {
+                    byDay.remove(day);
+                }
+            }
+        }
+
+        List<Subscription> removeBefore(LocalDate day) {
+            List<Subscription> removed = new ArrayList<>();
+            Iterator<Map<Integer, Subscription>> it = byDay.headMap(day.toEpochDay(), false).values().iterator();
+            while (it.hasNext()) {
+                for (Subscription subscription : it.next().values()) {
+                    dayBySubscription.remove(subscription.getSubscriptionId());
+                    removed.add(subscription);
+                }
+                it.remove();
+            }
+            return removed;
+        }
+    }
+}
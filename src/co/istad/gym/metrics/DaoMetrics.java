@@ -0,0 +1,228 @@
+package co.istad.gym.metrics;
+
+import co.istad.gym.model.BulkUpdateResult;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Per-method latency, call, error, row and connection-acquire metrics for the
+// DAO implementations. instrument() wraps a DAO in a proxy that times every
+// interface method; the call in flight is kept in a thread local so the pool
+// and the DAOs' catch blocks can attribute acquire time and swallowed errors
+// to it. With -Dgym.metrics.enabled=false nothing is wrapped and the hooks
+// reduce to a constant check.
+public class DaoMetrics implements DaoMetricsMBean {
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("gym.metrics.enabled", "true"));
+
+    private static final String JMX_DOMAIN = "co.istad.gym";
+    private static final DaoMetrics INSTANCE = new DaoMetrics();
+    private static final ThreadLocal<MethodMetrics> CURRENT = new ThreadLocal<>();
+
+    // "MemberDAO.getMemberById" -> metrics
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    private DaoMetrics() {
+        if (ENABLED) {
+            register("type=DaoMetrics,name=summary", this);
+        }
+    }
+
+    public static DaoMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // Returns target itself when metrics are disabled
+    public static <T> T instrument(Class<T> daoInterface, T target) {
+        if (!ENABLED) {
+            return target;
+        }
+        String daoName = daoInterface.getSimpleName();
+        Map<Method, MethodMetrics> byMethod = new HashMap<>();
+        for (Method method : daoInterface.getMethods()) {
+            byMethod.put(method, INSTANCE.metricsFor(daoName, method.getName()));
+        }
+        return daoInterface.cast(Proxy.newProxyInstance(
+                daoInterface.getClassLoader(),
+                new Class<?>[]{daoInterface},
+                new TimingHandler(target, byMethod)));
+    }
+
+    // Called by the pool with the time spent waiting for a connection
+    public static void recordAcquire(long nanos) {
+        if (ENABLED) {
+            MethodMetrics current = CURRENT.get();
+            if (current != null) {
+                current.recordAcquire(nanos);
+            }
+        }
+    }
+
+    // Called from DAO catch blocks that log an error and return a default value
+    public static void recordError() {
+        if (ENABLED) {
+            MethodMetrics current = CURRENT.get();
+            if (current != null) {
+                current.recordError();
+            }
+        }
+    }
+
+    public List<MethodMetrics> getMethods() {
+        List<MethodMetrics> list = new ArrayList<>(methods.values());
+        list.sort(Comparator.comparing(MethodMetrics::getDaoName).thenComparing(MethodMetrics::getMethodName));
+        return list;
+    }
+
+    @Override
+    public int getInstrumentedMethods() {
+        return methods.size();
+    }
+
+    @Override
+    public long getTotalCalls() {
+        long total = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            total += metrics.getCalls();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalErrors() {
+        long total = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            total += metrics.getErrors();
+        }
+        return total;
+    }
+
+    // Plain-text table of every method that has been called at least once
+    @Override
+    public String dump() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-46s %9s %7s %10s %9s %9s %9s %9s %9s %9s%n",
+                "Method", "Calls", "Errors", "Rows", "Mean ms", "p50 ms", "p95 ms", "p99 ms", "Max ms", "Acq p99"));
+        int shown = 0;
+        for (MethodMetrics metrics : getMethods()) {
+            if (metrics.getCalls() == 0) {
+                continue;
+            }
+            out.append(String.format("%-46s %9d %7d %10d %9.3f %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                    metrics.getDaoName() + "." + metrics.getMethodName(),
+                    metrics.getCalls(),
+                    metrics.getErrors(),
+                    metrics.getRows(),
+                    metrics.getMeanMillis(),
+                    metrics.getP50Millis(),
+                    metrics.getP95Millis(),
+                    metrics.getP99Millis(),
+                    metrics.getMaxMillis(),
+                    metrics.getP99AcquireMillis()));
+            shown++;
+        }
+        if (shown == 0) {
+            out.append(ENABLED ? "No DAO calls recorded yet.\n" : "DAO metrics are disabled (-Dgym.metrics.enabled=false).\n");
+        }
+        return out.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (MethodMetrics metrics : methods.values()) {
+            metrics.reset();
+        }
+    }
+
+    private MethodMetrics metricsFor(String daoName, String methodName) {
+        // Overloads share one entry
+        return methods.computeIfAbsent(daoName + "." + methodName, key -> {
+            MethodMetrics metrics = new MethodMetrics(daoName, methodName);
+            register("type=DaoMetrics,dao=" + daoName + ",method=" + methodName, metrics);
+            return metrics;
+        });
+    }
+
+    private static void register(String properties, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":" + properties);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (Exception e) {
+            System.err.println("Error registering DAO metrics MBean: " + e.getMessage());
+        }
+    }
+
+    // Rows a DAO result stands for: list sizes, a found Optional, bulk update counts
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof BulkUpdateResult bulk) {
+            return bulk.affectedRows();
+        }
+        return 0;
+    }
+
+    private static class TimingHandler implements InvocationHandler {
+        private final Object target;
+        private final Map<Method, MethodMetrics> byMethod;
+
+        TimingHandler(Object target, Map<Method, MethodMetrics> byMethod) {
+            this.target = target;
+            this.byMethod = byMethod;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            MethodMetrics metrics = byMethod.get(method);
+            if (metrics == null) {
+                // equals, hashCode, toString
+                return invokeTarget(method, args);
+            }
+
+            MethodMetrics outer = CURRENT.get();
+            CURRENT.set(metrics);
+            long start = System.nanoTime();
+            try {
+                Object result = invokeTarget(method, args);
+                metrics.recordRows(rowsOf(result));
+                return result;
+            } catch (Throwable e) {
+                metrics.recordError();
+                throw e;
+            } finally {
+                metrics.recordCall(System.nanoTime() - start);
+                if (outer == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(outer);
+                }
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package co.istad.gym.metrics;
+
+// JMX entry point registered as co.istad.gym:type=DaoMetrics,name=summary
+public interface DaoMetricsMBean {
+    int getInstrumentedMethods();
+
+    long getTotalCalls();
+
+    long getTotalErrors();
+
+    String dump();
+
+    void reset();
+}
@@ -0,0 +1,108 @@
+package co.istad.gym.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters for a single DAO method. Latency covers the whole call; acquire time
+// is the part of it spent waiting for a pooled connection.
+public class MethodMetrics implements MethodMetricsMBean {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String daoName;
+    private final String methodName;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    MethodMetrics(String daoName, String methodName) {
+        this.daoName = daoName;
+        this.methodName = methodName;
+    }
+
+    public String getDaoName() {
+        return daoName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    void recordCall(long nanos) {
+        latency.record(nanos);
+    }
+
+    void recordAcquire(long nanos) {
+        acquire.record(nanos);
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    void recordRows(long count) {
+        rows.add(count);
+    }
+
+    @Override
+    public long getCalls() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.getPercentileNanos(50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP95Millis() {
+        return latency.getPercentileNanos(95) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.getPercentileNanos(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getConnectionAcquires() {
+        return acquire.getCount();
+    }
+
+    @Override
+    public double getMeanAcquireMillis() {
+        return acquire.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99AcquireMillis() {
+        return acquire.getPercentileNanos(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        acquire.reset();
+        errors.reset();
+        rows.reset();
+    }
+}
@@ -0,0 +1,20 @@
+package co.istad.gym.metrics;
+
+// JMX view of one DAO method, registered as co.istad.gym:type=DaoMetrics,dao=...,method=...
+public interface MethodMetricsMBean {
+    long getCalls();
+    long getErrors();
+    long getRows();
+
+    double getMeanMillis();
+    double getP50Millis();
+    double getP95Millis();
+    double getP99Millis();
+    double getMaxMillis();
+
+    long getConnectionAcquires();
+    double getMeanAcquireMillis();
+    double getP99AcquireMillis();
+
+    void reset();
+}
@@ -0,0 +1,28 @@
+package co.istad.gym.metrics;
+
+import java.time.LocalDateTime;
+
+// One statement that took longer than the slow-query threshold. rows is the
+// number of rows read for queries and the update count for writes.
+public record SlowQuery(long sequence, LocalDateTime finishedAt, long elapsedNanos, String sql,
+                        String binds, long rows, int batchSize, String caller, String thread) {
+
+    public double elapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("#%d %s %.1f ms, %d row(s)", sequence, finishedAt, elapsedMillis(), rows));
+        if (batchSize > 0) {
+            out.append(", batch of ").append(batchSize);
+        }
+        out.append(", ").append(caller).append(" [").append(thread).append("]\n");
+        out.append("  SQL: ").append(sql).append('\n');
+        if (!binds.isEmpty()) {
+            out.append("  Binds: ").append(binds).append('\n');
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,174 @@
+package co.istad.gym.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Keeps the most recent statements that ran longer than a threshold, with SQL,
+// bind values, row count, elapsed time and the service method that issued them.
+// Writers claim a slot with one atomic increment and overwrite the oldest entry,
+// so memory is fixed at the capacity and recording never blocks. Entries can be
+// appended to a size-rolled log file.
+//
+// -Dgym.slowlog.enabled=false       do not trace statements at all
+// -Dgym.slowlog.thresholdMs=200     statements at or above this are kept
+// -Dgym.slowlog.capacity=256        entries held in memory (rounded up to a power of two)
+// -Dgym.slowlog.file=slow-queries.log, maxFileBytes=10485760, maxFiles=5
+public class SlowQueryLog {
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("gym.slowlog.enabled", "true"));
+
+    private static final long THRESHOLD_NANOS = Long.getLong("gym.slowlog.thresholdMs", 200L) * 1_000_000L;
+    private static final int CAPACITY = Integer.highestOneBit(Math.max(1, Integer.getInteger("gym.slowlog.capacity", 256) - 1)) << 1;
+    private static final Path FILE = Paths.get(System.getProperty("gym.slowlog.file", "slow-queries.log"));
+    private static final long MAX_FILE_BYTES = Long.getLong("gym.slowlog.maxFileBytes", 10L * 1024 * 1024);
+    private static final int MAX_FILES = Integer.getInteger("gym.slowlog.maxFiles", 5);
+
+    // Frames skipped when looking for the caller: JDBC plumbing, proxies and the DAO layer itself
+    private static final Set<String> PLUMBING_PACKAGES = Set.of(
+            "co.istad.gym.config", "co.istad.gym.metrics", "co.istad.gym.dao");
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private static final AtomicReferenceArray<SlowQuery> ENTRIES = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final AtomicLong RECORDED = new AtomicLong();
+
+    // Highest sequence already written to the file; guarded by SlowQueryLog.class
+    private static long lastWritten = -1;
+
+    private SlowQueryLog() {}
+
+    public static long getThresholdNanos() {
+        return THRESHOLD_NANOS;
+    }
+
+    public static Path getFile() {
+        return FILE;
+    }
+
+    public static int getCapacity() {
+        return CAPACITY;
+    }
+
+    // Total slow statements seen, including ones already overwritten
+    public static long getRecordedCount() {
+        return RECORDED.get();
+    }
+
+    static boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= THRESHOLD_NANOS;
+    }
+
+    static void record(String sql, String binds, long rows, int batchSize, long elapsedNanos) {
+        long sequence = SEQUENCE.getAndIncrement();
+        SlowQuery entry = new SlowQuery(sequence, LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS), elapsedNanos, sql, binds, rows, batchSize,
+                findCaller(), Thread.currentThread().getName());
+        ENTRIES.set((int) (sequence & (CAPACITY - 1)), entry);
+        RECORDED.incrementAndGet();
+    }
+
+    // Entries still in the buffer, oldest first
+    public static List<SlowQuery> getEntries() {
+        List<SlowQuery> entries = new ArrayList<>(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            SlowQuery entry = ENTRIES.get(i);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingLong(SlowQuery::sequence));
+        return entries;
+    }
+
+    // Appends the entries not yet written and returns how many were written
+    public static synchronized int writeToFile() throws IOException {
+        List<SlowQuery> pending = new ArrayList<>();
+        for (SlowQuery entry : getEntries()) {
+            if (entry.sequence() > lastWritten) {
+                pending.add(entry);
+            }
+        }
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        rollIfNeeded();
+        try (BufferedWriter writer = Files.newBufferedWriter(FILE, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (SlowQuery entry : pending) {
+                writer.write(entry.toString());
+            }
+        }
+        lastWritten = pending.get(pending.size() - 1).sequence();
+        return pending.size();
+    }
+
+    public static void clear() {
+        for (int i = 0; i < CAPACITY; i++) {
+            ENTRIES.set(i, null);
+        }
+    }
+
+    // slow-queries.log -> .1 -> .2 ... up to maxFiles, dropping the oldest
+    private static void rollIfNeeded() throws IOException {
+        if (!Files.exists(FILE) || Files.size(FILE) < MAX_FILE_BYTES) {
+            return;
+        }
+        Files.deleteIfExists(rolled(MAX_FILES - 1));
+        for (int i = MAX_FILES - 2; i >= 1; i--) {
+            Path from = rolled(i);
+            if (Files.exists(from)) {
+                Files.move(from, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (MAX_FILES > 1) {
+            Files.move(FILE, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(FILE);
+        }
+    }
+
+    private static Path rolled(int index) {
+        return FILE.resolveSibling(FILE.getFileName() + "." + index);
+    }
+
+    // The first application frame above the DAO layer, plus the DAO method it called
+    private static String findCaller() {
+        return WALKER.walk(frames -> {
+            String daoFrame = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (!className.startsWith("co.istad.gym.")) {
+                    continue;
+                }
+                String packageName = className.substring(0, className.lastIndexOf('.'));
+                if (PLUMBING_PACKAGES.contains(packageName)) {
+                    if (daoFrame == null && packageName.equals("co.istad.gym.dao")) {
+                        daoFrame = describe(frame);
+                    }
+                    continue;
+                }
+                return describe(frame) + (daoFrame != null ? " -> " + daoFrame : "");
+            }
+            return daoFrame != null ? daoFrame : "unknown";
+        });
+    }
+
+    private static String describe(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,257 @@
+package co.istad.gym.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+// Wraps JDBC statements handed out by the pool so each execution is timed for
+// the SlowQueryLog. The time counted is the execute call plus every
+// ResultSet.next(), so a streaming reader's own work between rows is left out.
+// An execution ends when its result set or statement is closed, or the
+// statement runs again; only then, and only if it was slow, is anything
+// (caller frame included) captured.
+public class StatementTracer {
+    private static final int MAX_BINDS = 64;
+    private static final int MAX_BIND_LENGTH = 100;
+
+    private StatementTracer() {}
+
+    // sql is null for plain statements, whose SQL arrives with execute
+    public static Statement trace(Statement statement, String sql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                new StatementHandler(statement, sql));
+    }
+
+    private static String describeBinds(Object[] binds, int count) {
+        if (count == 0) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                out.append(", ");
+            }
+            out.append('$').append(i).append('=').append(describe(binds[i]));
+        }
+        return out.toString();
+    }
+
+    private static String describe(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String text;
+        try {
+            text = value instanceof Array array ? Arrays.deepToString(new Object[]{array.getArray()}) : value.toString();
+        } catch (Exception e) {
+            text = value.getClass().getSimpleName();
+        }
+        if (text.length() > MAX_BIND_LENGTH) {
+            text = text.substring(0, MAX_BIND_LENGTH) + "...";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+
+        // Parameters set since the last execute, indexed from 1
+        private Object[] binds = new Object[8];
+        private int bindCount;
+        private int batchSize;
+
+        private String batchSql;
+
+        // The execution in progress
+        private String sql;
+        private Object[] executionBindValues;
+        private int executionBindCount;
+        private int executionBatchSize;
+        private long elapsedNanos;
+        private long rows;
+        private boolean running;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            switch (name) {
+                case "close":
+                    finish();
+                    return StatementTracer.invoke(statement, method, args);
+                case "getResultSet": {
+                    ResultSet rs = (ResultSet) StatementTracer.invoke(statement, method, args);
+                    return running && rs != null ? wrap(rs) : rs;
+                }
+                case "clearParameters":
+                    bindCount = 0;
+                    return StatementTracer.invoke(statement, method, args);
+                case "addBatch":
+                    batchSize++;
+                    if (args != null && args.length == 1 && args[0] instanceof String text) {
+                        batchSql = text;
+                    }
+                    return StatementTracer.invoke(statement, method, args);
+                case "clearBatch":
+                    batchSize = 0;
+                    batchSql = null;
+                    return StatementTracer.invoke(statement, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            // setXxx(index, value, ...) on a prepared statement
+            if (args != null && args.length >= 2 && name.startsWith("set") && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            }
+            return StatementTracer.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finish();
+
+            boolean batch = method.getName().endsWith("Batch");
+            sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : preparedSql != null ? preparedSql : batchSql;
+            executionBindValues = binds.clone();
+            executionBindCount = bindCount;
+            executionBatchSize = batch ? batchSize : 0;
+            rows = 0;
+            elapsedNanos = 0;
+            running = true;
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = StatementTracer.invoke(statement, method, args);
+            } finally {
+                elapsedNanos += System.nanoTime() - start;
+            }
+
+            if (result instanceof ResultSet rs) {
+                return wrap(rs);
+            }
+            if (result instanceof Integer count) {
+                rows = count;
+            } else if (result instanceof Long count) {
+                rows = count;
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+                batchSize = 0;
+                batchSql = null;
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(count, 0);
+                }
+                batchSize = 0;
+                batchSql = null;
+            }
+            return result;
+        }
+
+        private void bind(int index, Object value) {
+            if (index < 1 || index > MAX_BINDS) {
+                return;
+            }
+            if (index >= binds.length) {
+                binds = Arrays.copyOf(binds, Math.min(MAX_BINDS + 1, Math.max(index + 1, binds.length * 2)));
+            }
+            binds[index] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+
+        private ResultSet wrap(ResultSet rs) {
+            return (ResultSet) Proxy.newProxyInstance(
+                    ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(rs, this));
+        }
+
+        private void finish() {
+            if (!running) {
+                return;
+            }
+            running = false;
+            if (SlowQueryLog.isSlow(elapsedNanos)) {
+                // For a batch these are the binds of its last row
+                SlowQueryLog.record(sql, describeBinds(executionBindValues, executionBindCount),
+                        rows, executionBatchSize, elapsedNanos);
+            }
+            executionBindValues = null;
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet rs;
+        private final StatementHandler owner;
+
+        ResultSetHandler(ResultSet rs, StatementHandler owner) {
+            this.rs = rs;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    long start = System.nanoTime();
+                    try {
+                        Boolean more = (Boolean) StatementTracer.invoke(rs, method, args);
+                        if (more) {
+                            owner.rows++;
+                        }
+                        return more;
+                    } finally {
+                        owner.elapsedNanos += System.nanoTime() - start;
+                    }
+                }
+                case "close":
+                    owner.finish();
+                    return StatementTracer.invoke(rs, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return StatementTracer.invoke(rs, method, args);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package co.istad.gym.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Outcome of a set-based subscription update: the ids asked for and, for each
+// row the update touched, its state before and after (ids that were missing or
+// deleted are absent).
+public record BulkUpdateResult(List<Integer> requestedIds, List<SubscriptionChange> changes, long elapsedNanos) {
+
+    public int affectedRows() {
+        return changes.size();
+    }
+
+    // The rows as they stand after the update
+    public List<Subscription> updated() {
+        List<Subscription> updated = new ArrayList<>(changes.size());
+        for (SubscriptionChange change : changes) {
+            updated.add(change.after());
+        }
+        return updated;
+    }
+
+    public List<Integer> notUpdatedIds() {
+        Set<Integer> updatedIds = new HashSet<>();
+        for (SubscriptionChange change : changes) {
+            updatedIds.add(change.after().getSubscriptionId());
+        }
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : requestedIds) {
+            if (!updatedIds.contains(id)) {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d of %d subscriptions updated in %.1f ms",
+                affectedRows(), requestedIds.size(), elapsedNanos / 1e6);
+    }
+}
@@ -0,0 +1,38 @@
+package co.istad.gym.model;
+
+import java.time.LocalDateTime;
+
+public class CheckIn {
+    private long checkInId;
+    private int memberId;
+    private LocalDateTime checkInTime;
+    private boolean granted;
+
+    // Constructors
+    public CheckIn() {}
+
+    public CheckIn(int memberId, boolean granted) {
+        this.memberId = memberId;
+        this.granted = granted;
+        this.checkInTime = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public long getCheckInId() { return checkInId; }
+    public void setCheckInId(long checkInId) { this.checkInId = checkInId; }
+
+    public int getMemberId() { return memberId; }
+    public void setMemberId(int memberId) { this.memberId = memberId; }
+
+    public LocalDateTime getCheckInTime() { return checkInTime; }
+    public void setCheckInTime(LocalDateTime checkInTime) { this.checkInTime = checkInTime; }
+
+    public boolean isGranted() { return granted; }
+    public void setGranted(boolean granted) { this.granted = granted; }
+
+    @Override
+    public String toString() {
+        return String.format("CheckIn{id=%d, memberId=%d, time=%s, granted=%s}",
+                checkInId, memberId, checkInTime, granted);
+    }
+}
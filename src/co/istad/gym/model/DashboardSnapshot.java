@@ -0,0 +1,31 @@
+package co.istad.gym.model;
+
+import java.time.LocalDate;
+
+// Point-in-time dashboard metrics, computed together in one query.
+public record DashboardSnapshot(
+        LocalDate asOf,
+        int totalMembers,
+        int activeMembers,
+        int totalSubscriptions,
+        int activeSubscriptions,
+        int expiringSubscriptions,
+        int expiringWithinDays,
+        double monthlyRevenue) {
+
+    public int inactiveMembers() {
+        return totalMembers - activeMembers;
+    }
+
+    public double activeMemberRate() {
+        return totalMembers > 0 ? (activeMembers * 100.0) / totalMembers : 0.0;
+    }
+
+    public double activeSubscriptionRate() {
+        return totalSubscriptions > 0 ? (activeSubscriptions * 100.0) / totalSubscriptions : 0.0;
+    }
+
+    public double averageRevenuePerActiveSubscription() {
+        return activeSubscriptions > 0 ? monthlyRevenue / activeSubscriptions : 0.0;
+    }
+}
@@ -31,6 +31,19 @@ public class Member {
         this.isDeleted = false;
     }
 
+    public Member(Member other) {
+        this.memberId = other.memberId;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.email = other.email;
+        this.phoneNumber = other.phoneNumber;
+        this.dateOfBirth = other.dateOfBirth;
+        this.emergencyContact = other.emergencyContact;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.isDeleted = other.isDeleted;
+    }
+
     // Getters and Setters
     public int getMemberId() { return memberId; }
     public void setMemberId(int memberId) { this.memberId = memberId; }
@@ -0,0 +1,7 @@
+package co.istad.gym.model;
+
+import java.time.LocalDate;
+
+// Paid subscriptions created in [periodStart, next period start) and their value
+public record PeriodRevenue(LocalDate periodStart, int subscriptions, double revenue) {
+}
@@ -0,0 +1,69 @@
+package co.istad.gym.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class Plan {
+    private int planId;
+    private String planName;
+    private double price;
+    private int durationMonths;
+    private boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public Plan() {}
+
+    public Plan(String planName, double price, int durationMonths) {
+        this.planName = planName;
+        this.price = price;
+        this.durationMonths = durationMonths;
+        this.isActive = true;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Plan(Plan other) {
+        this.planId = other.planId;
+        this.planName = other.planName;
+        this.price = other.price;
+        this.durationMonths = other.durationMonths;
+        this.isActive = other.isActive;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
+    // Getters and Setters
+    public int getPlanId() { return planId; }
+    public void setPlanId(int planId) { this.planId = planId; }
+
+    public String getPlanName() { return planName; }
+    public void setPlanName(String planName) { this.planName = planName; }
+
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+
+    public int getDurationMonths() { return durationMonths; }
+    public void setDurationMonths(int durationMonths) { this.durationMonths = durationMonths; }
+
+    public boolean isActive() { return isActive; }
+    public void setActive(boolean active) { isActive = active; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    // A subscription to this plan starting on startDate runs until the returned date
+    public LocalDate endDateFrom(LocalDate startDate) {
+        return startDate.plusMonths(durationMonths);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Plan{id=%d, name='%s', price=%.2f, months=%d, active=%s}",
+                planId, planName, price, durationMonths, isActive);
+    }
+}
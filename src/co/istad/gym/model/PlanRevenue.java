@@ -0,0 +1,4 @@
+package co.istad.gym.model;
+
+public record PlanRevenue(int planId, String planName, int subscriptions, double revenue) {
+}
@@ -0,0 +1,7 @@
+package co.istad.gym.model;
+
+import java.util.List;
+
+// Dashboard metrics and per-plan totals read from the same database snapshot.
+public record StatisticsTotals(DashboardSnapshot dashboard, List<PlanRevenue> planTotals) {
+}
@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 public class Subscription {
     private int subscriptionId;
     private int memberId;
+    private int planId;
     private String planName;
     private double monthlyPrice;
     private LocalDate startDate;
@@ -31,6 +32,25 @@ public class Subscription {
         this.isDeleted = false;
     }
 
+    public Subscription(int memberId, Plan plan, LocalDate startDate) {
+        this(memberId, plan.getPlanName(), plan.getPrice(), startDate, plan.endDateFrom(startDate));
+        this.planId = plan.getPlanId();
+    }
+
+    public Subscription(Subscription other) {
+        this.subscriptionId = other.subscriptionId;
+        this.memberId = other.memberId;
+        this.planId = other.planId;
+        this.planName = other.planName;
+        this.monthlyPrice = other.monthlyPrice;
+        this.startDate = other.startDate;
+        this.endDate = other.endDate;
+        this.paymentStatus = other.paymentStatus;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.isDeleted = other.isDeleted;
+    }
+
     // Getters and Setters
     public int getSubscriptionId() { return subscriptionId; }
     public void setSubscriptionId(int subscriptionId) { this.subscriptionId = subscriptionId; }
@@ -38,6 +58,9 @@ public class Subscription {
     public int getMemberId() { return memberId; }
     public void setMemberId(int memberId) { this.memberId = memberId; }
 
+    public int getPlanId() { return planId; }
+    public void setPlanId(int planId) { this.planId = planId; }
+
     public String getPlanName() { return planName; }
     public void setPlanName(String planName) { this.planName = planName; }
 
@@ -0,0 +1,5 @@
+package co.istad.gym.model;
+
+// A subscription row as it stood just before and just after one UPDATE
+public record SubscriptionChange(Subscription before, Subscription after) {
+}
@@ -0,0 +1,39 @@
+package co.istad.gym.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Period width for time-bucketed aggregates. Each constant matches the
+// PostgreSQL date_trunc unit of the same name (weeks start on Monday).
+public enum TimeBucket {
+    DAY("day"),
+    WEEK("week"),
+    MONTH("month");
+
+    private final String sqlUnit;
+
+    TimeBucket(String sqlUnit) {
+        this.sqlUnit = sqlUnit;
+    }
+
+    public String getSqlUnit() {
+        return sqlUnit;
+    }
+
+    public LocalDate truncate(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate next(LocalDate periodStart) {
+        return switch (this) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package co.istad.gym.plan;
+
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.dao.PlanDAO;
+import co.istad.gym.dao.SubscriptionListener;
+import co.istad.gym.model.Plan;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Read-mostly cache of the plans table. The whole catalog is loaded at once
+// into an immutable snapshot that readers use without locking; writes made
+// through the catalog and bulk loads swap in a freshly loaded snapshot.
+// Lookups hand out copies so callers cannot change the cached plans.
+public class PlanCatalog implements SubscriptionListener {
+    // An unknown plan id reloads the catalog at most this often
+    private static final long MISS_RELOAD_MS = Long.getLong("gym.plans.missReloadMs", 5000L);
+
+    private static final PlanCatalog INSTANCE = new PlanCatalog(DAOFactory.getPlanDAO());
+
+    private final PlanDAO planDAO;
+    private volatile Snapshot snapshot;
+    private boolean started;
+
+    PlanCatalog(PlanDAO planDAO) {
+        this.planDAO = planDAO;
+    }
+
+    public static PlanCatalog getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() throws Exception {
+        if (started) {
+            return;
+        }
+        started = true;
+        DAOFactory.addSubscriptionListener(this);
+        refresh();
+    }
+
+    // Plans that can be sold, in catalog order
+    public List<Plan> getActivePlans() throws Exception {
+        List<Plan> active = new ArrayList<>();
+        for (Plan plan : current().plans) {
+            if (plan.isActive()) {
+                active.add(new Plan(plan));
+            }
+        }
+        return active;
+    }
+
+    public List<Plan> getAllPlans() throws Exception {
+        List<Plan> plans = new ArrayList<>();
+        for (Plan plan : current().plans) {
+            plans.add(new Plan(plan));
+        }
+        return plans;
+    }
+
+    public Optional<Plan> getPlan(int planId) throws Exception {
+        Plan plan = current().byId.get(planId);
+        if (plan == null) {
+            // Possibly added by another client since the last load
+            plan = reloadForMiss().byId.get(planId);
+        }
+        return plan == null ? Optional.empty() : Optional.of(new Plan(plan));
+    }
+
+    public Optional<Plan> findByName(String planName) throws Exception {
+        Plan plan = current().byName.get(planName);
+        return plan == null ? Optional.empty() : Optional.of(new Plan(plan));
+    }
+
+    public int addPlan(Plan plan) throws Exception {
+        int planId = planDAO.addPlan(plan);
+        if (planId > 0) {
+            refresh();
+        }
+        return planId;
+    }
+
+    public boolean updatePlan(Plan plan) throws Exception {
+        boolean updated = planDAO.updatePlan(plan);
+        if (updated) {
+            refresh();
+        }
+        return updated;
+    }
+
+    // Links subscriptions that were written without a plan_id, creating plans for unknown names
+    public int linkSubscriptions() throws Exception {
+        int linked = planDAO.linkSubscriptions();
+        refresh();
+        return linked;
+    }
+
+    public void refresh() throws Exception {
+        load();
+    }
+
+    // Bulk loads may have brought in plan names the catalog has not seen
+    @Override
+    public void onBulkChange() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            System.err.println("Error refreshing plan catalog: " + e.getMessage());
+        }
+    }
+
+    private Snapshot current() throws Exception {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    // A run of bad ids (e.g. a CSV import) shares one reload instead of scanning plans per row
+    private synchronized Snapshot reloadForMiss() throws Exception {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAtNanos < MISS_RELOAD_MS * 1_000_000L) {
+            return current;
+        }
+        return load();
+    }
+
+    private synchronized Snapshot load() throws Exception {
+        Snapshot fresh = new Snapshot(planDAO.getAllPlans());
+        snapshot = fresh;
+        return fresh;
+    }
+
+    private static final class Snapshot {
+        private final List<Plan> plans;
+        private final Map<Integer, Plan> byId = new HashMap<>();
+        private final Map<String, Plan> byName = new HashMap<>();
+        private final long loadedAtNanos = System.nanoTime();
+
+        private Snapshot(List<Plan> plans) {
+            this.plans = List.copyOf(plans);
+            for (Plan plan : this.plans) {
+                byId.put(plan.getPlanId(), plan);
+                byName.put(plan.getPlanName(), plan);
+            }
+        }
+    }
+}
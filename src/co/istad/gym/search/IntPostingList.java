@@ -0,0 +1,80 @@
+package co.istad.gym.search;
+
+import java.util.Arrays;
+
+// Sorted, growable list of member ids backed by a primitive int array.
+class IntPostingList {
+    private int[] ids = new int[4];
+    private int size;
+
+    void add(int id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            insertAt(-pos - 1, id);
+            return;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        ids[size++] = id;
+    }
+
+    boolean remove(int id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    void trimToSize() {
+        if (ids.length != size) {
+            ids = Arrays.copyOf(ids, Math.max(size, 1));
+        }
+    }
+
+    // Keeps the entries of sorted that also occur in this list
+    int retainAll(int[] sorted, int length) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < length; i++) {
+            int pos = Arrays.binarySearch(ids, from, size, sorted[i]);
+            if (pos >= 0) {
+                sorted[kept++] = sorted[i];
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+            if (from >= size) {
+                break;
+            }
+        }
+        return kept;
+    }
+
+    private void insertAt(int pos, int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+    }
+}
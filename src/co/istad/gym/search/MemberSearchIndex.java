@@ -0,0 +1,367 @@
+package co.istad.gym.search;
+
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.dao.MemberDAO;
+import co.istad.gym.dao.MemberListener;
+import co.istad.gym.model.Member;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-memory inverted index over member first name, last name, email and phone.
+// Queries of three or more characters match substrings through trigram posting
+// lists; one or two characters match word prefixes. The index is built by
+// streaming the members table and then follows MemberDAO writes.
+public class MemberSearchIndex implements MemberListener {
+    private static final MemberSearchIndex INSTANCE = new MemberSearchIndex(DAOFactory.getMemberDAO());
+
+    private final MemberDAO memberDAO;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object buildLock = new Object();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    // One builder thread, so rebuilds never overlap
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "gym-search-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by lock
+    private IndexData data = new IndexData();
+    private boolean ready;
+    private List<Runnable> pendingDuringBuild;
+
+    private boolean started;
+
+    MemberSearchIndex(MemberDAO memberDAO) {
+        this.memberDAO = memberDAO;
+    }
+
+    public static MemberSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        DAOFactory.addMemberListener(this);
+        rebuildAsync();
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Member> search(String keyword, int limit) {
+        String query = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        if (query.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] candidates;
+            int count;
+
+            if (query.length() < 3) {
+                IntPostingList postings = data.postings.get(prefixKey(query));
+                if (postings == null) {
+                    return new ArrayList<>();
+                }
+                candidates = postings.toArray();
+                count = candidates.length;
+            } else {
+                List<IntPostingList> lists = new ArrayList<>();
+                for (int i = 0; i + 3 <= query.length(); i++) {
+                    IntPostingList postings = data.postings.get(trigramKey(query, i));
+                    if (postings == null) {
+                        return new ArrayList<>();
+                    }
+                    lists.add(postings);
+                }
+                lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+                candidates = lists.get(0).toArray();
+                count = candidates.length;
+                for (int i = 1; i < lists.size() && count > 0; i++) {
+                    count = lists.get(i).retainAll(candidates, count);
+                }
+            }
+
+            // Trigram hits can be false positives, so confirm the substring; prefix matches rank first
+            List<Member> prefixMatches = new ArrayList<>();
+            List<Member> otherMatches = new ArrayList<>();
+            for (int i = 0; i < count && prefixMatches.size() < limit; i++) {
+                Doc doc = data.docs.get(candidates[i]);
+                if (doc == null) {
+                    continue;
+                }
+                int match = doc.match(query);
+                if (match == Doc.PREFIX) {
+                    prefixMatches.add(doc.toMember());
+                } else if (match == Doc.CONTAINS && otherMatches.size() < limit) {
+                    otherMatches.add(doc.toMember());
+                }
+            }
+
+            prefixMatches.addAll(otherMatches);
+            return prefixMatches.size() > limit ? new ArrayList<>(prefixMatches.subList(0, limit)) : prefixMatches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void rebuild() throws Exception {
+        // Overlapping builds would replace each other's pending writes
+        synchronized (buildLock) {
+            build();
+        }
+    }
+
+    private void build() throws Exception {
+        lock.writeLock().lock();
+        try {
+            pendingDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData fresh = new IndexData();
+        try (Stream<Member> members = memberDAO.streamAllMembers()) {
+            members.forEach(fresh::add);
+        } catch (Exception | Error e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        fresh.trim();
+
+        lock.writeLock().lock();
+        try {
+            // Writes that raced with the scan are replayed on top of the new index
+            List<Runnable> pending = pendingDuringBuild;
+            pendingDuringBuild = null;
+            data = fresh;
+            for (Runnable change : pending) {
+                change.run();
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Requests that arrive while one is still queued share it
+    public void rebuildAsync() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        builder.execute(() -> {
+            rebuildQueued.set(false);
+            try {
+                long start = System.nanoTime();
+                rebuild();
+                System.out.printf("Member search index ready: %d members in %.0f ms\n",
+                        size(), (System.nanoTime() - start) / 1e6);
+            } catch (Exception e) {
+                System.err.println("Error building member search index: " + e.getMessage());
+            }
+        });
+    }
+
+    // MEMBER EVENTS
+    @Override
+    public void onMemberAdded(Member member) {
+        apply(() -> data.add(member));
+    }
+
+    @Override
+    public void onMemberChanged(Member member) {
+        apply(() -> {
+            data.remove(member.getMemberId());
+            data.add(member);
+        });
+    }
+
+    @Override
+    public void onMemberRemoved(int memberId) {
+        apply(() -> data.remove(memberId));
+    }
+
+    @Override
+    public void onBulkChange() {
+        rebuildAsync();
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingDuringBuild != null) {
+                pendingDuringBuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Grams are packed into a long: length in the top bits, then up to three UTF-16 chars
+    private static long trigramKey(String s, int start) {
+        return (3L << 48) | ((long) s.charAt(start) << 32) | ((long) s.charAt(start + 1) << 16) | s.charAt(start + 2);
+    }
+
+    private static long prefixKey(String prefix) {
+        long key = (long) prefix.length() << 48;
+        for (int i = 0; i < prefix.length(); i++) {
+            key |= (long) prefix.charAt(i) << (32 - 16 * i);
+        }
+        return key;
+    }
+
+    private static class IndexData {
+        private final Map<Long, IntPostingList> postings = new HashMap<>();
+        private final Map<Integer, Doc> docs = new HashMap<>();
+
+        void add(Member member) {
+            if (member.isDeleted()) {
+                return;
+            }
+            Doc doc = new Doc(member);
+            Doc previous = docs.put(doc.memberId, doc);
+            if (previous != null) {
+                forEachKey(previous, key -> removePosting(key, previous.memberId));
+            }
+            forEachKey(doc, key -> postings.computeIfAbsent(key, k -> new IntPostingList()).add(doc.memberId));
+        }
+
+        void remove(int memberId) {
+            Doc doc = docs.remove(memberId);
+            if (doc != null) {
+                forEachKey(doc, key -> removePosting(key, memberId));
+            }
+        }
+
+        void trim() {
+            for (IntPostingList list : postings.values()) {
+                list.trimToSize();
+            }
+        }
+
+        private void removePosting(long key, int memberId) {
+            IntPostingList list = postings.get(key);
+            if (list != null && list.remove(memberId) && list.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+
+        private static void forEachKey(Doc doc, KeyConsumer consumer) {
+            for (String field : doc.fields) {
+                if (field.isEmpty()) {
+                    continue;
+                }
+                for (int i = 0; i + 3 <= field.length(); i++) {
+                    consumer.accept(trigramKey(field, i));
+                }
+                // Word prefixes of one and two characters for short type-ahead queries
+                int wordStart = -1;
+                for (int i = 0; i <= field.length(); i++) {
+                    boolean wordChar = i < field.length() && Character.isLetterOrDigit(field.charAt(i));
+                    if (wordChar && wordStart < 0) {
+                        wordStart = i;
+                        consumer.accept(prefixKey(field.substring(i, i + 1)));
+                        if (i + 1 < field.length()) {
+                            consumer.accept(prefixKey(field.substring(i, i + 2)));
+                        }
+                    } else if (!wordChar) {
+                        wordStart = -1;
+                    }
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface KeyConsumer {
+        void accept(long key);
+    }
+
+    private static class Doc {
+        static final int NONE = 0;
+        static final int CONTAINS = 1;
+        static final int PREFIX = 2;
+
+        private final int memberId;
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        private final String phoneNumber;
+        private final String[] fields;
+
+        Doc(Member member) {
+            this.memberId = member.getMemberId();
+            this.firstName = member.getFirstName();
+            this.lastName = member.getLastName();
+            this.email = member.getEmail();
+            this.phoneNumber = member.getPhoneNumber();
+            this.fields = new String[]{lower(firstName), lower(lastName), lower(email), lower(phoneNumber)};
+        }
+
+        int match(String query) {
+            int result = NONE;
+            for (String field : fields) {
+                if (field.startsWith(query)) {
+                    return PREFIX;
+                }
+                if (query.length() >= 3 && field.contains(query)) {
+                    result = CONTAINS;
+                }
+            }
+            if (result == NONE && query.length() < 3) {
+                // Short queries come from the word-prefix postings
+                return CONTAINS;
+            }
+            return result;
+        }
+
+        Member toMember() {
+            Member member = new Member();
+            member.setMemberId(memberId);
+            member.setFirstName(firstName);
+            member.setLastName(lastName);
+            member.setEmail(email);
+            member.setPhoneNumber(phoneNumber);
+            return member;
+        }
+
+        private static String lower(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+    }
+}
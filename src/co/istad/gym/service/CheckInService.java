@@ -0,0 +1,114 @@
+package co.istad.gym.service;
+
+import co.istad.gym.checkin.AccessControl;
+import co.istad.gym.checkin.CheckInWriter;
+import co.istad.gym.checkin.CheckInWriter.Stats;
+import co.istad.gym.dao.CheckInDAO;
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.dao.MemberDAO;
+import co.istad.gym.model.CheckIn;
+import co.istad.gym.model.Member;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.Scanner;
+
+public class CheckInService {
+    private static final int RECENT_LIMIT = Integer.getInteger("gym.page.size", 20);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final AccessControl accessControl;
+    private final CheckInWriter checkInWriter;
+    private final CheckInDAO checkInDAO;
+    private final MemberDAO memberDAO;
+    private final Scanner scanner;
+
+    public CheckInService() {
+        this.accessControl = AccessControl.getInstance();
+        this.checkInWriter = CheckInWriter.getInstance();
+        this.checkInDAO = DAOFactory.getCheckInDAO();
+        this.memberDAO = DAOFactory.getMemberDAO();
+        this.scanner = new Scanner(System.in);
+    }
+
+    public void checkInMember() throws Exception {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("             MEMBER CHECK-IN");
+        System.out.println("══════════════════════════════════════════");
+
+        System.out.print("Enter Member ID: ");
+        try {
+            int memberId = Integer.parseInt(scanner.nextLine());
+
+            // The decision comes from the access bitmap; the database write happens in the background
+            long start = System.nanoTime();
+            boolean granted = accessControl.hasAccess(memberId);
+            long elapsedNanos = System.nanoTime() - start;
+            boolean logged = checkInWriter.submit(new CheckIn(memberId, granted));
+
+            Optional<Member> member = memberDAO.getMemberById(memberId);
+            String name = member.map(Member::getFullName).orElse("Unknown member");
+            if (granted) {
+                System.out.println("ACCESS GRANTED - Welcome, " + name + "!");
+            } else {
+                System.out.println("ACCESS DENIED - " + name + " has no valid subscription today.");
+            }
+            System.out.printf("(decided in %,d ns)%n", elapsedNanos);
+            if (!logged) {
+                System.out.println("Warning: the check-in log is backed up; this check-in was not recorded.");
+            }
+
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid member ID!");
+        }
+    }
+
+    public void viewRecentCheckIns() throws Exception {
+        // Queued check-ins are written first so the list is complete
+        if (!checkInWriter.flush()) {
+            System.out.println("Some queued check-ins are not written yet.");
+        }
+
+        System.out.println("\n══════════════════════════════════════════════════════════════════");
+        System.out.println("                         RECENT CHECK-INS");
+        System.out.println("══════════════════════════════════════════════════════════════════");
+        System.out.printf("%-10s %-12s %-22s %-10s%n", "ID", "Member ID", "Time", "Result");
+        System.out.println("══════════════════════════════════════════════════════════════════");
+
+        List<CheckIn> checkIns = checkInDAO.getRecentCheckIns(RECENT_LIMIT);
+        if (checkIns.isEmpty()) {
+            System.out.println("No check-ins found.");
+        } else {
+            for (CheckIn checkIn : checkIns) {
+                System.out.printf("%-10d %-12d %-22s %-10s%n",
+                        checkIn.getCheckInId(),
+                        checkIn.getMemberId(),
+                        checkIn.getCheckInTime().format(TIME_FORMAT),
+                        checkIn.isGranted() ? "Granted" : "Denied"
+                );
+            }
+        }
+        System.out.println("══════════════════════════════════════════════════════════════════");
+        System.out.println("Check-ins today: " + checkInDAO.countCheckInsOn(LocalDate.now()));
+        System.out.println("Members with access: " + (accessControl.isReady() ? accessControl.size() : "loading..."));
+    }
+
+    public void viewWriterStatistics() {
+        Stats stats = checkInWriter.getStats();
+
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("          CHECK-IN WRITER STATISTICS");
+        System.out.println("══════════════════════════════════════════");
+        System.out.printf("%-24s %,d%n", "Accepted:", stats.accepted());
+        System.out.printf("%-24s %,d%n", "Written:", stats.written());
+        System.out.printf("%-24s %,d%n", "Rejected (queue full):", stats.rejected());
+        System.out.printf("%-24s %,d / %,d%n", "Queued:", stats.queued(), stats.capacity());
+        System.out.printf("%-24s %,d%n", "Batches committed:", stats.batches());
+        System.out.printf("%-24s %.1f (largest %,d)%n", "Average batch:", stats.averageBatch(), stats.largestBatch());
+        System.out.printf("%-24s %,d%n", "Failed writes:", stats.failedWrites());
+        System.out.printf("%-24s %.2f ms%n", "Last commit:", stats.lastCommitMillis());
+        System.out.printf("%-24s %.1f check-ins/s%n", "Throughput:", stats.writtenPerSecond());
+        System.out.println("══════════════════════════════════════════");
+    }
+}
@@ -0,0 +1,287 @@
+package co.istad.gym.service;
+
+import co.istad.gym.bulk.BulkCopy;
+import co.istad.gym.bulk.CopyResult;
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.dao.MemberDAO;
+import co.istad.gym.dao.SubscriptionDAO;
+import co.istad.gym.model.Member;
+import co.istad.gym.model.Plan;
+import co.istad.gym.model.Subscription;
+import co.istad.gym.plan.PlanCatalog;
+import co.istad.gym.util.CsvUtils;
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Scanner;
+
+public class DataTransferService {
+    // Rows handed to the DAO per call, so huge files are never held in memory at once
+    private static final int IMPORT_CHUNK_SIZE = DatabaseConfig.BATCH_SIZE * 20;
+
+    private final MemberDAO memberDAO;
+    private final SubscriptionDAO subscriptionDAO;
+    private final PlanCatalog planCatalog;
+    private final BulkCopy bulkCopy;
+    private final Scanner scanner;
+
+    public DataTransferService() {
+        this.memberDAO = DAOFactory.getMemberDAO();
+        this.subscriptionDAO = DAOFactory.getSubscriptionDAO();
+        this.planCatalog = PlanCatalog.getInstance();
+        this.bulkCopy = new BulkCopy();
+        this.scanner = new Scanner(System.in);
+    }
+
+    public void importMembersFromCsv() {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("          IMPORT MEMBERS (CSV)");
+        System.out.println("══════════════════════════════════════════");
+        System.out.println("Expected columns: first_name,last_name,email,phone_number,date_of_birth,emergency_contact");
+
+        Path path = promptForFile();
+        if (path == null) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        int imported = 0;
+        int skipped = 0;
+        int firstId = -1;
+        int lastId = -1;
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<Member> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+            String line = reader.readLine(); // header
+            int lineNumber = 1;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    List<String> fields = CsvUtils.parseLine(line);
+                    String dob = CsvUtils.emptyToNull(field(fields, 4));
+                    chunk.add(new Member(field(fields, 0), field(fields, 1), field(fields, 2), field(fields, 3),
+                            dob != null ? LocalDate.parse(dob) : null, field(fields, 5)));
+                } catch (RuntimeException e) {
+                    System.out.println("Skipping line " + lineNumber + ": " + e.getMessage());
+                    skipped++;
+                }
+
+                if (chunk.size() >= IMPORT_CHUNK_SIZE) {
+                    List<Integer> ids = memberDAO.addMembers(chunk);
+                    if (firstId < 0 && !ids.isEmpty()) firstId = ids.get(0);
+                    if (!ids.isEmpty()) lastId = ids.get(ids.size() - 1);
+                    imported += ids.size();
+                    skipped += chunk.size() - ids.size();
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                List<Integer> ids = memberDAO.addMembers(chunk);
+                if (firstId < 0 && !ids.isEmpty()) firstId = ids.get(0);
+                if (!ids.isEmpty()) lastId = ids.get(ids.size() - 1);
+                imported += ids.size();
+                skipped += chunk.size() - ids.size();
+            }
+
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+
+        printImportSummary("member", imported, skipped, firstId, lastId, startNanos);
+    }
+
+    public void importSubscriptionsFromCsv() {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("       IMPORT SUBSCRIPTIONS (CSV)");
+        System.out.println("══════════════════════════════════════════");
+        System.out.println("Expected columns: member_id,plan_name,monthly_price,start_date,end_date,payment_status");
+
+        Path path = promptForFile();
+        if (path == null) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        int imported = 0;
+        int skipped = 0;
+        int firstId = -1;
+        int lastId = -1;
+        int unknownPlans = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<Subscription> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+            String line = reader.readLine(); // header
+            int lineNumber = 1;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    List<String> fields = CsvUtils.parseLine(line);
+                    Subscription subscription = new Subscription(
+                            Integer.parseInt(field(fields, 0)),
+                            field(fields, 1),
+                            Double.parseDouble(field(fields, 2)),
+                            LocalDate.parse(field(fields, 3)),
+                            LocalDate.parse(field(fields, 4)));
+                    String status = CsvUtils.emptyToNull(field(fields, 5));
+                    if (status != null) {
+                        subscription.setPaymentStatus(status);
+                    }
+                    Optional<Plan> plan = planCatalog.findByName(subscription.getPlanName());
+                    if (plan.isPresent()) {
+                        subscription.setPlanId(plan.get().getPlanId());
+                    } else {
+                        unknownPlans++;
+                    }
+                    chunk.add(subscription);
+                } catch (RuntimeException e) {
+                    System.out.println("Skipping line " + lineNumber + ": " + e.getMessage());
+                    skipped++;
+                }
+
+                if (chunk.size() >= IMPORT_CHUNK_SIZE) {
+                    List<Integer> ids = subscriptionDAO.addSubscriptions(chunk);
+                    if (firstId < 0 && !ids.isEmpty()) firstId = ids.get(0);
+                    if (!ids.isEmpty()) lastId = ids.get(ids.size() - 1);
+                    imported += ids.size();
+                    skipped += chunk.size() - ids.size();
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                List<Integer> ids = subscriptionDAO.addSubscriptions(chunk);
+                if (firstId < 0 && !ids.isEmpty()) firstId = ids.get(0);
+                if (!ids.isEmpty()) lastId = ids.get(ids.size() - 1);
+                imported += ids.size();
+                skipped += chunk.size() - ids.size();
+            }
+
+            // Plan names missing from the catalog become new plans
+            if (unknownPlans > 0) {
+                planCatalog.linkSubscriptions();
+                DAOFactory.notifyBulkChange();
+            }
+
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+
+        printImportSummary("subscription", imported, skipped, firstId, lastId, startNanos);
+    }
+
+    public void bulkLoadMembers() {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("        BULK LOAD MEMBERS (COPY)");
+        System.out.println("══════════════════════════════════════════");
+        System.out.println("Expected columns: " + BulkCopy.MEMBER_COLUMNS);
+
+        Path path = promptForFile();
+        if (path == null) {
+            return;
+        }
+
+        try {
+            CopyResult result = bulkCopy.importMembers(path);
+            System.out.println(result);
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    public void bulkLoadSubscriptions() {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("     BULK LOAD SUBSCRIPTIONS (COPY)");
+        System.out.println("══════════════════════════════════════════");
+        System.out.println("Expected columns: " + BulkCopy.SUBSCRIPTION_COLUMNS);
+
+        Path path = promptForFile();
+        if (path == null) {
+            return;
+        }
+
+        try {
+            CopyResult result = bulkCopy.importSubscriptions(path);
+            System.out.println(result);
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    public void exportMembers() {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("          EXPORT MEMBERS (COPY)");
+        System.out.println("══════════════════════════════════════════");
+
+        Path path = promptForExportFile("members-" + LocalDate.now() + ".csv");
+
+        try {
+            CopyResult result = bulkCopy.exportMembers(path);
+            System.out.println(result);
+            System.out.println("Written to: " + path.toAbsolutePath());
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    public void exportSubscriptions() {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("       EXPORT SUBSCRIPTIONS (COPY)");
+        System.out.println("══════════════════════════════════════════");
+
+        Path path = promptForExportFile("subscriptions-" + LocalDate.now() + ".csv");
+
+        try {
+            CopyResult result = bulkCopy.exportSubscriptions(path);
+            System.out.println(result);
+            System.out.println("Written to: " + path.toAbsolutePath());
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private Path promptForExportFile(String defaultName) {
+        System.out.print("Output file [" + defaultName + "]: ");
+        String fileName = scanner.nextLine().trim();
+        return Paths.get(fileName.isEmpty() ? defaultName : fileName);
+    }
+
+    private Path promptForFile() {
+        System.out.print("CSV file path: ");
+        String fileName = scanner.nextLine().trim();
+        Path path = Paths.get(fileName);
+        if (fileName.isEmpty() || !Files.isRegularFile(path)) {
+            System.out.println("File not found!");
+            return null;
+        }
+        return path;
+    }
+
+    private void printImportSummary(String type, int imported, int skipped, int firstId, int lastId, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        System.out.println("\nImported " + imported + " " + type + "(s), skipped " + skipped);
+        if (imported > 0) {
+            System.out.println("Generated IDs: " + firstId + " .. " + lastId);
+        }
+        System.out.printf("Elapsed: %.2fs (%.0f rows/sec)\n", seconds, seconds > 0 ? imported / seconds : 0.0);
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : "";
+    }
+}
@@ -1,19 +1,27 @@
 package co.istad.gym.service;
 
+import co.istad.gym.dao.DAOFactory;
 import co.istad.gym.dao.MemberDAO;
-import co.istad.gym.dao.MemberDAOImpl;
 import co.istad.gym.model.Member;
+import co.istad.gym.search.MemberSearchIndex;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
 
 public class MemberService {
+    private static final int PAGE_SIZE = Integer.getInteger("gym.page.size", 20);
+    private static final int SEARCH_LIMIT = Integer.getInteger("gym.search.limit", 50);
+
     private final MemberDAO memberDAO;
+    private final MemberSearchIndex searchIndex;
     private final Scanner scanner;
 
     public MemberService() {
-        this.memberDAO = new MemberDAOImpl();
+        this.memberDAO = DAOFactory.getMemberDAO();
+        this.searchIndex = MemberSearchIndex.getInstance();
         this.scanner = new Scanner(System.in);
     }
 
@@ -68,31 +76,61 @@ public class MemberService {
     }
 
     public void viewAllMembers() throws Exception {
-        System.out.println("\n══════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
-        System.out.println("                                                      ALL MEMBERS");
-        System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
-        System.out.printf("%-10s %-20s %-25s %-15s %-20s%n",
-                "ID", "Name", "Email", "Phone", "Emergency Contact");
-        System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+        int totalMembers = memberDAO.countMembers();
+        int totalPages = Math.max(1, (totalMembers + PAGE_SIZE - 1) / PAGE_SIZE);
+
+        // Keyset cursors: the last member id of each page before the current one
+        Deque<Integer> previousCursors = new ArrayDeque<>();
+        int cursor = 0;
+        int pageNumber = 1;
+
+        while (true) {
+            System.out.println("\n══════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+            System.out.println("                                                      ALL MEMBERS");
+            System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+            System.out.printf("%-10s %-20s %-25s %-15s %-20s%n",
+                    "ID", "Name", "Email", "Phone", "Emergency Contact");
+            System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+
+            List<Member> members = memberDAO.getMembersPage(cursor, PAGE_SIZE);
+
+            if (members.isEmpty()) {
+                System.out.println("No members found.");
+            } else {
+                for (Member member : members) {
+                    System.out.printf("%-10d %-20s %-25s %-15s %-20s%n",
+                            member.getMemberId(),
+                            member.getFirstName() + " " + member.getLastName(),
+                            member.getEmail(),
+                            member.getPhoneNumber(),
+                            member.getEmergencyContact()
+                    );
+                }
+            }
 
-        List<Member> members = memberDAO.getAllMembers();
+            System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+            System.out.println("Page " + pageNumber + " of " + totalPages + " | Total Members: " + totalMembers);
 
-        if (members.isEmpty()) {
-            System.out.println("No members found.");
-        } else {
-            for (Member member : members) {
-                System.out.printf("%-10d %-20s %-25s %-15s %-20s%n",
-                        member.getMemberId(),
-                        member.getFirstName() + " " + member.getLastName(),
-                        member.getEmail(),
-                        member.getPhoneNumber(),
-                        member.getEmergencyContact()
-                );
+            boolean hasNext = members.size() == PAGE_SIZE && pageNumber < totalPages;
+            boolean hasPrevious = !previousCursors.isEmpty();
+            if (!hasNext && !hasPrevious) {
+                return;
             }
-        }
 
-        System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
-        System.out.println("Total Members: " + members.size());
+            System.out.print((hasNext ? "[N]ext  " : "") + (hasPrevious ? "[P]revious  " : "") + "[Q]uit: ");
+            String choice = scanner.nextLine().trim();
+
+            if (hasNext && choice.equalsIgnoreCase("n")) {
+                previousCursors.push(cursor);
+                cursor = members.get(members.size() - 1).getMemberId();
+                pageNumber++;
+            } else if (hasPrevious && choice.equalsIgnoreCase("p")) {
+                cursor = previousCursors.pop();
+                pageNumber--;
+            } else if (choice.equalsIgnoreCase("q")) {
+                return;
+            }
+        }
     }
 
     public void updateMember() throws Exception {
@@ -187,7 +225,12 @@ public class MemberService {
         System.out.print("Enter search keyword: ");
         String keyword = scanner.nextLine();
 
-        List<Member> members = memberDAO.searchMembers(keyword);
+        // The in-memory index answers without a round trip once it has been built
+        long startNanos = System.nanoTime();
+        List<Member> members = searchIndex.isReady()
+                ? searchIndex.search(keyword, SEARCH_LIMIT)
+                : memberDAO.searchMembers(keyword, SEARCH_LIMIT);
+        double elapsedMillis = (System.nanoTime() - startNanos) / 1e6;
 
         System.out.println("\n══════════════════════════════════════════════════════════════════════════════════════════════════════");
         System.out.println("                    SEARCH RESULTS FOR: \"" + keyword + "\"");
@@ -210,6 +253,8 @@ public class MemberService {
         }
 
         System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════");
-        System.out.println("Found " + members.size() + " member(s)");
+        System.out.println("Found " + members.size() + " member(s)" +
+                (members.size() == SEARCH_LIMIT ? " (showing best " + SEARCH_LIMIT + " matches)" : "") +
+                String.format(" in %.3f ms", elapsedMillis));
     }
 }
\ No newline at end of file
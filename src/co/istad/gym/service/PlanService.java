@@ -0,0 +1,136 @@
+package co.istad.gym.service;
+
+import co.istad.gym.model.Plan;
+import co.istad.gym.plan.PlanCatalog;
+import java.util.List;
+import java.util.Optional;
+import java.util.Scanner;
+
+public class PlanService {
+    private final PlanCatalog planCatalog;
+    private final Scanner scanner;
+
+    public PlanService() {
+        this.planCatalog = PlanCatalog.getInstance();
+        this.scanner = new Scanner(System.in);
+    }
+
+    public void viewAllPlans() throws Exception {
+        System.out.println("\n══════════════════════════════════════════════════════════════════");
+        System.out.println("                            ALL PLANS");
+        System.out.println("══════════════════════════════════════════════════════════════════");
+        System.out.printf("%-8s %-25s %-12s %-10s %-8s%n", "ID", "Plan Name", "Price", "Months", "Active");
+        System.out.println("══════════════════════════════════════════════════════════════════");
+
+        List<Plan> plans = planCatalog.getAllPlans();
+        if (plans.isEmpty()) {
+            System.out.println("No plans found.");
+        } else {
+            for (Plan plan : plans) {
+                System.out.printf("%-8d %-25s $%-11.2f %-10d %-8s%n",
+                        plan.getPlanId(),
+                        plan.getPlanName(),
+                        plan.getPrice(),
+                        plan.getDurationMonths(),
+                        plan.isActive() ? "Yes" : "No"
+                );
+            }
+        }
+        System.out.println("══════════════════════════════════════════════════════════════════");
+    }
+
+    public void addPlan() throws Exception {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("              ADD NEW PLAN");
+        System.out.println("══════════════════════════════════════════");
+
+        try {
+            System.out.print("Plan Name: ");
+            String planName = scanner.nextLine().trim();
+            if (planName.isEmpty()) {
+                System.out.println("Plan name is required!");
+                return;
+            }
+            if (planCatalog.findByName(planName).isPresent()) {
+                System.out.println("A plan with this name already exists!");
+                return;
+            }
+
+            System.out.print("Price: ");
+            double price = Double.parseDouble(scanner.nextLine());
+
+            System.out.print("Duration (months): ");
+            int durationMonths = Integer.parseInt(scanner.nextLine());
+            if (price < 0 || durationMonths < 1) {
+                System.out.println("Price must not be negative and duration must be at least one month!");
+                return;
+            }
+
+            int planId = planCatalog.addPlan(new Plan(planName, price, durationMonths));
+
+            if (planId > 0) {
+                System.out.println("Plan added successfully!");
+                System.out.println("Plan ID: " + planId);
+            } else {
+                System.out.println("Failed to add plan!");
+            }
+
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number!");
+        }
+    }
+
+    // Existing subscriptions keep the name and price they were sold with
+    public void updatePlan() throws Exception {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("              UPDATE PLAN");
+        System.out.println("══════════════════════════════════════════");
+
+        System.out.print("Enter Plan ID to update: ");
+        try {
+            int planId = Integer.parseInt(scanner.nextLine());
+
+            Optional<Plan> planOpt = planCatalog.getPlan(planId);
+            if (!planOpt.isPresent()) {
+                System.out.println("Plan not found!");
+                return;
+            }
+
+            Plan plan = planOpt.get();
+
+            System.out.println("\nEnter new information (press Enter to keep current):");
+
+            System.out.print("Plan Name [" + plan.getPlanName() + "]: ");
+            String planName = scanner.nextLine().trim();
+            if (!planName.isEmpty()) plan.setPlanName(planName);
+
+            System.out.printf("Price [%.2f]: ", plan.getPrice());
+            String price = scanner.nextLine();
+            if (!price.isEmpty()) plan.setPrice(Double.parseDouble(price));
+
+            System.out.print("Duration (months) [" + plan.getDurationMonths() + "]: ");
+            String durationMonths = scanner.nextLine();
+            if (!durationMonths.isEmpty()) plan.setDurationMonths(Integer.parseInt(durationMonths));
+
+            System.out.print("Active (yes/no) [" + (plan.isActive() ? "yes" : "no") + "]: ");
+            String active = scanner.nextLine();
+            if (!active.isEmpty()) plan.setActive(active.equalsIgnoreCase("yes"));
+
+            if (plan.getPrice() < 0 || plan.getDurationMonths() < 1) {
+                System.out.println("Price must not be negative and duration must be at least one month!");
+                return;
+            }
+
+            boolean success = planCatalog.updatePlan(plan);
+
+            if (success) {
+                System.out.println("Plan updated successfully!");
+            } else {
+                System.out.println("Failed to update plan!");
+            }
+
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number!");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package co.istad.gym.service;
+
+import co.istad.gym.dao.AsyncMemberDAO;
+import co.istad.gym.dao.AsyncSubscriptionDAO;
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.dao.DaoExecutor;
+import co.istad.gym.expiry.ExpiryScheduler;
+import co.istad.gym.model.DashboardSnapshot;
+import co.istad.gym.model.Member;
+import co.istad.gym.model.PeriodRevenue;
+import co.istad.gym.model.PlanRevenue;
+import co.istad.gym.model.Subscription;
+import co.istad.gym.model.TimeBucket;
+import co.istad.gym.stats.StatisticsEngine;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Fetches everything a set of reports needs at once. Each independent source
+// is started on the async DAO executor (virtual threads over the connection
+// pool) and the results are joined, so a report waits for its slowest query
+// rather than the sum of all of them.
+public class ReportEngine {
+    public enum Report { MEMBER, SUBSCRIPTION, FINANCIAL, DAILY }
+
+    public record ReportData(DashboardSnapshot snapshot,
+                             List<Member> recentMembers,
+                             List<Subscription> expiringSubscriptions,
+                             List<PlanRevenue> planTotals,
+                             List<PeriodRevenue> revenueTrend,
+                             long elapsedNanos) {
+    }
+
+    private static final int RECENT_MEMBERS = 5;
+    private static final int REVENUE_TREND_MONTHS = 6;
+
+    private final AsyncMemberDAO memberDAO;
+    private final AsyncSubscriptionDAO subscriptionDAO;
+    private final DaoExecutor executor;
+    private final StatisticsEngine statisticsEngine;
+    private final ExpiryScheduler expiryScheduler;
+
+    public ReportEngine() {
+        this.memberDAO = DAOFactory.getAsyncMemberDAO();
+        this.subscriptionDAO = DAOFactory.getAsyncSubscriptionDAO();
+        this.executor = DAOFactory.getAsyncExecutor();
+        this.statisticsEngine = StatisticsEngine.getInstance();
+        this.expiryScheduler = ExpiryScheduler.getInstance();
+    }
+
+    public ReportData load(Report report) throws Exception {
+        return load(EnumSet.of(report));
+    }
+
+    public ReportData load(Set<Report> reports) throws Exception {
+        long start = System.nanoTime();
+
+        // Every report starts from the dashboard snapshot
+        CompletableFuture<DashboardSnapshot> snapshot = executor.submit(statisticsEngine::snapshot);
+
+        CompletableFuture<List<Member>> recentMembers = reports.contains(Report.MEMBER)
+                ? memberDAO.getMembersPage(0, RECENT_MEMBERS)
+                : CompletableFuture.completedFuture(new ArrayList<>());
+
+        // The expiring rows come from the expiry index, only when the snapshot says there are any
+        CompletableFuture<List<Subscription>> expiring = reports.contains(Report.SUBSCRIPTION)
+                ? snapshot.thenCompose(s -> s.expiringSubscriptions() > 0
+                        ? executor.submit(() -> expiryScheduler.getExpiringSubscriptions(StatisticsEngine.EXPIRING_WITHIN_DAYS))
+                        : CompletableFuture.completedFuture(new ArrayList<>()))
+                : CompletableFuture.completedFuture(new ArrayList<>());
+
+        CompletableFuture<List<PlanRevenue>> planTotals = reports.contains(Report.FINANCIAL)
+                ? executor.submit(statisticsEngine::getPlanTotals)
+                : CompletableFuture.completedFuture(new ArrayList<>());
+
+        LocalDate today = LocalDate.now();
+        CompletableFuture<List<PeriodRevenue>> revenueTrend = reports.contains(Report.FINANCIAL)
+                ? subscriptionDAO.getRevenueByPeriod(TimeBucket.MONTH,
+                        today.minusMonths(REVENUE_TREND_MONTHS - 1), today)
+                : CompletableFuture.completedFuture(new ArrayList<>());
+
+        try {
+            CompletableFuture.allOf(snapshot, recentMembers, expiring, planTotals, revenueTrend).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+
+        return new ReportData(snapshot.join(), recentMembers.join(), expiring.join(), planTotals.join(),
+                revenueTrend.join(), System.nanoTime() - start);
+    }
+
+    private static Exception unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception exception) {
+            return exception;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return e;
+    }
+}
@@ -1,82 +1,116 @@
 package co.istad.gym.service;
 
-import co.istad.gym.dao.MemberDAO;
-import co.istad.gym.dao.SubscriptionDAO;
-import co.istad.gym.dao.MemberDAOImpl;
-import co.istad.gym.dao.SubscriptionDAOImpl;
+import co.istad.gym.config.ConnectionPool;
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.config.StatementCache;
+import co.istad.gym.dao.CachingMemberDAO;
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.metrics.DaoMetrics;
+import co.istad.gym.metrics.SlowQuery;
+import co.istad.gym.metrics.SlowQueryLog;
+import co.istad.gym.model.DashboardSnapshot;
 import co.istad.gym.model.Member;
+import co.istad.gym.model.PeriodRevenue;
+import co.istad.gym.model.PlanRevenue;
 import co.istad.gym.model.Subscription;
+import co.istad.gym.stats.StatisticsEngine;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
 import java.util.List;
 
 public class ReportService {
-    private final MemberDAO memberDAO;
-    private final SubscriptionDAO subscriptionDAO;
+    private static final int EXPIRING_WITHIN_DAYS = StatisticsEngine.EXPIRING_WITHIN_DAYS;
+    private static final int SLOW_QUERIES_SHOWN = 10;
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final ReportEngine reportEngine;
+    private final StatisticsEngine statisticsEngine;
 
     public ReportService() {
-        this.memberDAO = new MemberDAOImpl();
-        this.subscriptionDAO = new SubscriptionDAOImpl();
+        this.reportEngine = new ReportEngine();
+        this.statisticsEngine = StatisticsEngine.getInstance();
     }
 
     public void generateMemberReport() throws Exception {
+        printMemberReport(reportEngine.load(ReportEngine.Report.MEMBER));
+    }
+
+    public void generateSubscriptionReport() throws Exception {
+        printSubscriptionReport(reportEngine.load(ReportEngine.Report.SUBSCRIPTION));
+    }
+
+    public void generateFinancialReport() throws Exception {
+        printFinancialReport(reportEngine.load(ReportEngine.Report.FINANCIAL));
+    }
+
+    public void generateDailySummary() throws Exception {
+        printDailySummary(reportEngine.load(ReportEngine.Report.DAILY));
+    }
+
+    // All four reports from one concurrent fetch
+    public void generateAllReports() throws Exception {
+        ReportEngine.ReportData data = reportEngine.load(EnumSet.allOf(ReportEngine.Report.class));
+
+        printMemberReport(data);
+        printSubscriptionReport(data);
+        printFinancialReport(data);
+        printDailySummary(data);
+
+        System.out.printf("\nReport data loaded in %.1f ms\n", data.elapsedNanos() / 1e6);
+    }
+
+    private void printMemberReport(ReportEngine.ReportData data) {
         System.out.println("\n══════════════════════════════════════════");
         System.out.println("           MEMBER STATISTICS");
         System.out.println("══════════════════════════════════════════");
 
-        int totalMembers = memberDAO.countMembers();
-        int activeMembers = memberDAO.countActiveMembers();
+        DashboardSnapshot snapshot = data.snapshot();
 
-        System.out.println("Total Members: " + totalMembers);
-        System.out.println("Active Members: " + activeMembers);
-        System.out.println("Inactive Members: " + (totalMembers - activeMembers));
+        System.out.println("Total Members: " + snapshot.totalMembers());
+        System.out.println("Active Members: " + snapshot.activeMembers());
+        System.out.println("Inactive Members: " + snapshot.inactiveMembers());
 
-        if (totalMembers > 0) {
-            double activePercentage = (activeMembers * 100.0) / totalMembers;
-            System.out.printf("Active Rate: %.1f%%\n", activePercentage);
+        if (snapshot.totalMembers() > 0) {
+            System.out.printf("Active Rate: %.1f%%\n", snapshot.activeMemberRate());
         }
 
         // Show recent members
-        List<Member> members = memberDAO.getAllMembers();
+        List<Member> members = data.recentMembers();
         if (!members.isEmpty()) {
             System.out.println("\n--- Recent Members ---");
-            int count = 0;
             for (Member member : members) {
-                if (count >= 5) break;
                 System.out.printf("ID: %d, Name: %s %s, Email: %s\n",
                         member.getMemberId(),
                         member.getFirstName(),
                         member.getLastName(),
                         member.getEmail()
                 );
-                count++;
             }
         }
     }
 
-    public void generateSubscriptionReport() throws Exception {
+    private void printSubscriptionReport(ReportEngine.ReportData data) {
         System.out.println("\n══════════════════════════════════════════");
         System.out.println("        SUBSCRIPTION STATISTICS");
         System.out.println("══════════════════════════════════════════");
 
-        int totalSubscriptions = subscriptionDAO.countSubscriptions();
-        int activeSubscriptions = subscriptionDAO.countActiveSubscriptions();
-        double monthlyRevenue = subscriptionDAO.calculateMonthlyRevenue();
+        DashboardSnapshot snapshot = data.snapshot();
 
-        System.out.println("Total Subscriptions: " + totalSubscriptions);
-        System.out.println("Active Subscriptions: " + activeSubscriptions);
-        System.out.printf("Monthly Revenue: $%.2f\n", monthlyRevenue);
+        System.out.println("Total Subscriptions: " + snapshot.totalSubscriptions());
+        System.out.println("Active Subscriptions: " + snapshot.activeSubscriptions());
+        System.out.printf("Monthly Revenue: $%.2f\n", snapshot.monthlyRevenue());
 
-        if (totalSubscriptions > 0) {
-            double activePercentage = (activeSubscriptions * 100.0) / totalSubscriptions;
-            double avgRevenue = monthlyRevenue / activeSubscriptions;
-            System.out.printf("Active Rate: %.1f%%\n", activePercentage);
-            System.out.printf("Average Revenue per Active Sub: $%.2f\n", avgRevenue);
+        if (snapshot.totalSubscriptions() > 0) {
+            System.out.printf("Active Rate: %.1f%%\n", snapshot.activeSubscriptionRate());
+            System.out.printf("Average Revenue per Active Sub: $%.2f\n", snapshot.averageRevenuePerActiveSubscription());
         }
 
         // Show expiring subscriptions
-        List<Subscription> expiring = subscriptionDAO.getExpiringSubscriptions(7);
+        List<Subscription> expiring = data.expiringSubscriptions();
         if (!expiring.isEmpty()) {
-            System.out.println("\n--- Subscriptions Expiring in Next 7 Days ---");
+            System.out.println("\n--- Subscriptions Expiring in Next " + EXPIRING_WITHIN_DAYS + " Days ---");
             for (Subscription sub : expiring) {
                 long daysLeft = java.time.temporal.ChronoUnit.DAYS.between(
                         LocalDate.now(), sub.getEndDate()
@@ -92,70 +126,135 @@ public class ReportService {
         }
     }
 
-    public void generateFinancialReport() throws Exception {
+    private void printFinancialReport(ReportEngine.ReportData data) {
         System.out.println("\n══════════════════════════════════════════");
         System.out.println("          FINANCIAL REPORT");
         System.out.println("══════════════════════════════════════════");
 
-        double monthlyRevenue = subscriptionDAO.calculateMonthlyRevenue();
-        List<Subscription> activeSubs = subscriptionDAO.getActiveSubscriptions();
+        DashboardSnapshot snapshot = data.snapshot();
+        List<PlanRevenue> planTotals = data.planTotals();
 
-        System.out.printf("Monthly Recurring Revenue: $%.2f\n", monthlyRevenue);
-        System.out.println("Active Subscriptions: " + activeSubs.size());
+        System.out.printf("Monthly Recurring Revenue: $%.2f\n", snapshot.monthlyRevenue());
+        System.out.println("Active Subscriptions: " + snapshot.activeSubscriptions());
 
-        if (!activeSubs.isEmpty()) {
+        if (!planTotals.isEmpty()) {
             System.out.println("\n--- Revenue by Plan Type ---");
-            double basicTotal = 0;
-            double premiumTotal = 0;
-            double goldTotal = 0;
-            int basicCount = 0;
-            int premiumCount = 0;
-            int goldCount = 0;
-
-            for (Subscription sub : activeSubs) {
-                if (sub.getPlanName().contains("Basic")) {
-                    basicTotal += sub.getMonthlyPrice();
-                    basicCount++;
-                } else if (sub.getPlanName().contains("Premium")) {
-                    premiumTotal += sub.getMonthlyPrice();
-                    premiumCount++;
-                } else if (sub.getPlanName().contains("Gold")) {
-                    goldTotal += sub.getMonthlyPrice();
-                    goldCount++;
-                }
-            }
+            double totalRevenue = 0;
 
-            System.out.printf("Basic Monthly: %d subscriptions, $%.2f\n", basicCount, basicTotal);
-            System.out.printf("Premium Monthly: %d subscriptions, $%.2f\n", premiumCount, premiumTotal);
-            System.out.printf("Gold Annual: %d subscriptions, $%.2f\n", goldCount, goldTotal);
+            for (PlanRevenue plan : planTotals) {
+                System.out.printf("%s: %d subscriptions, $%.2f\n",
+                        plan.planName(), plan.subscriptions(), plan.revenue());
+                totalRevenue += plan.revenue();
+            }
 
-            double totalRevenue = basicTotal + premiumTotal + goldTotal;
             System.out.printf("\nTotal Revenue: $%.2f\n", totalRevenue);
         }
+
+        List<PeriodRevenue> revenueTrend = data.revenueTrend();
+        if (!revenueTrend.isEmpty()) {
+            System.out.println("\n--- New Paid Subscriptions by Month ---");
+            for (PeriodRevenue period : revenueTrend) {
+                System.out.printf("%s: %d subscriptions, $%.2f\n",
+                        period.periodStart().format(MONTH_FORMAT), period.subscriptions(), period.revenue());
+            }
+        }
     }
 
-    public void generateDailySummary() throws Exception {
+    private void printDailySummary(ReportEngine.ReportData data) {
         System.out.println("\n══════════════════════════════════════════");
         System.out.println("           DAILY SUMMARY");
         System.out.println("══════════════════════════════════════════");
 
-        System.out.println("Date: " + LocalDate.now());
+        DashboardSnapshot snapshot = data.snapshot();
 
-        int totalMembers = memberDAO.countMembers();
-        int activeMembers = memberDAO.countActiveMembers();
-        int activeSubscriptions = subscriptionDAO.countActiveSubscriptions();
-        List<Subscription> expiring = subscriptionDAO.getExpiringSubscriptions(7);
+        System.out.println("Date: " + snapshot.asOf());
 
         System.out.println("\nToday's Statistics:");
-        System.out.println("Total Members: " + totalMembers);
-        System.out.println("Active Members: " + activeMembers);
-        System.out.println("Active Subscriptions: " + activeSubscriptions);
-        System.out.println("Subscriptions Expiring in Next 7 Days: " + expiring.size());
+        System.out.println("Total Members: " + snapshot.totalMembers());
+        System.out.println("Active Members: " + snapshot.activeMembers());
+        System.out.println("Active Subscriptions: " + snapshot.activeSubscriptions());
+        System.out.println("Subscriptions Expiring in Next " + EXPIRING_WITHIN_DAYS + " Days: " +
+                snapshot.expiringSubscriptions());
 
         // Show summary
-        if (totalMembers > 0) {
-            double memberGrowth = ((double) activeMembers / totalMembers) * 100;
-            System.out.printf("Member Engagement: %.1f%%\n", memberGrowth);
+        if (snapshot.totalMembers() > 0) {
+            System.out.printf("Member Engagement: %.1f%%\n", snapshot.activeMemberRate());
+        }
+    }
+
+    public void generatePerformanceReport() {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("         PERFORMANCE STATISTICS");
+        System.out.println("══════════════════════════════════════════");
+
+        ConnectionPool pool = DatabaseConfig.getPool();
+        System.out.println("--- Connection Pool ---");
+        System.out.println("Total Connections: " + pool.getTotalConnections() + " / " + pool.getMaxSize());
+        System.out.println("Active Connections: " + pool.getActiveConnections());
+        System.out.println("Idle Connections: " + pool.getIdleConnections());
+
+        System.out.println("\n--- Statement Cache ---");
+        System.out.println("Hits: " + StatementCache.getHits());
+        System.out.println("Misses: " + StatementCache.getMisses());
+        System.out.println("Evictions: " + StatementCache.getEvictions());
+        System.out.printf("Hit Ratio: %.1f%%\n", StatementCache.getHitRatio() * 100);
+
+        CachingMemberDAO memberCache = DAOFactory.getMemberCache();
+        System.out.println("\n--- Member Cache ---");
+        System.out.println("Cached Members: " + memberCache.size());
+        System.out.println("Hits: " + memberCache.getHits());
+        System.out.println("Misses: " + memberCache.getMisses());
+        System.out.println("Evictions: " + memberCache.getEvictions());
+        System.out.printf("Hit Ratio: %.1f%%\n", memberCache.getHitRatio() * 100);
+
+        System.out.println("\n--- Statistics Engine ---");
+        System.out.println("Reconciles: " + statisticsEngine.getReconcileCount());
+        System.out.println("Last Reconciled: " + statisticsEngine.getLastReconciledAt());
+    }
+
+    // Also available over JMX under co.istad.gym:type=DaoMetrics
+    public void generateDaoMetricsReport() {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("             DAO METRICS");
+        System.out.println("══════════════════════════════════════════");
+
+        DaoMetrics metrics = DaoMetrics.getInstance();
+        System.out.print(metrics.dump());
+        System.out.println("\nTotal Calls: " + metrics.getTotalCalls() + ", Errors: " + metrics.getTotalErrors());
+    }
+
+    // Shows the most recent slow statements and appends any new ones to the log file
+    public void generateSlowQueryReport() {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("            SLOW QUERY LOG");
+        System.out.println("══════════════════════════════════════════");
+
+        if (!SlowQueryLog.ENABLED) {
+            System.out.println("Slow query log is disabled (-Dgym.slowlog.enabled=false).");
+            return;
+        }
+
+        List<SlowQuery> entries = SlowQueryLog.getEntries();
+        System.out.printf("Threshold: %.0f ms, Recorded: %d, Buffered: %d / %d\n",
+                SlowQueryLog.getThresholdNanos() / 1e6, SlowQueryLog.getRecordedCount(),
+                entries.size(), SlowQueryLog.getCapacity());
+
+        if (entries.isEmpty()) {
+            System.out.println("No slow queries recorded.");
+            return;
+        }
+
+        System.out.println("\n--- Most Recent ---");
+        for (SlowQuery entry : entries.subList(Math.max(0, entries.size() - SLOW_QUERIES_SHOWN), entries.size())) {
+            System.out.print(entry);
+        }
+
+        try {
+            int written = SlowQueryLog.writeToFile();
+            System.out.println("\n" + written + " new entr" + (written == 1 ? "y" : "ies") + " written to "
+                    + SlowQueryLog.getFile().toAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Error writing slow query log: " + e.getMessage());
         }
     }
 }
\ No newline at end of file
@@ -1,24 +1,39 @@
 package co.istad.gym.service;
 
+import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.dao.DAOFactory;
 import co.istad.gym.dao.MemberDAO;
 import co.istad.gym.dao.SubscriptionDAO;
-import co.istad.gym.dao.MemberDAOImpl;
-import co.istad.gym.dao.SubscriptionDAOImpl;
+import co.istad.gym.expiry.ExpiryScheduler;
+import co.istad.gym.model.BulkUpdateResult;
 import co.istad.gym.model.Member;
+import co.istad.gym.model.Plan;
 import co.istad.gym.model.Subscription;
+import co.istad.gym.plan.PlanCatalog;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.Set;
 
 public class SubscriptionService {
+    private static final int PAGE_SIZE = Integer.getInteger("gym.page.size", 20);
+    // Largest id list a bulk update accepts from the keyboard
+    private static final int MAX_BULK_IDS = DatabaseConfig.BATCH_SIZE;
+
     private final SubscriptionDAO subscriptionDAO;
     private final MemberDAO memberDAO;
+    private final PlanCatalog planCatalog;
     private final Scanner scanner;
 
     public SubscriptionService() {
-        this.subscriptionDAO = new SubscriptionDAOImpl();
-        this.memberDAO = new MemberDAOImpl();
+        this.subscriptionDAO = DAOFactory.getSubscriptionDAO();
+        this.memberDAO = DAOFactory.getMemberDAO();
+        this.planCatalog = PlanCatalog.getInstance();
         this.scanner = new Scanner(System.in);
     }
 
@@ -40,33 +55,22 @@ public class SubscriptionService {
             Member member = memberOpt.get();
             System.out.println("Member: " + member.getFirstName() + " " + member.getLastName());
 
+            List<Plan> plans = planCatalog.getActivePlans();
+            if (plans.isEmpty()) {
+                System.out.println("No plans available!");
+                return;
+            }
+
             System.out.println("\nAvailable Plans:");
-            System.out.println("1. Basic Monthly - $29.99");
-            System.out.println("2. Premium Monthly - $59.99");
-            System.out.println("3. Gold Annual - $499.99");
-            System.out.print("Select plan (1-3): ");
+            printPlanChoices(plans);
+            System.out.print("Select plan (1-" + plans.size() + "): ");
 
             int planChoice = Integer.parseInt(scanner.nextLine());
-            String planName;
-            double price;
-
-            switch (planChoice) {
-                case 1:
-                    planName = "Basic Monthly";
-                    price = 29.99;
-                    break;
-                case 2:
-                    planName = "Premium Monthly";
-                    price = 59.99;
-                    break;
-                case 3:
-                    planName = "Gold Annual";
-                    price = 499.99;
-                    break;
-                default:
-                    System.out.println("Invalid plan!");
-                    return;
+            if (planChoice < 1 || planChoice > plans.size()) {
+                System.out.println("Invalid plan!");
+                return;
             }
+            Plan plan = plans.get(planChoice - 1);
 
             System.out.print("Start Date (YYYY-MM-DD) [today]: ");
             String startDateStr = scanner.nextLine();
@@ -76,15 +80,8 @@ public class SubscriptionService {
             String paymentStatus = scanner.nextLine();
             if (paymentStatus.isEmpty()) paymentStatus = "PENDING";
 
-            // Calculate end date
-            LocalDate endDate;
-            if (planName.contains("Annual")) {
-                endDate = startDate.plusYears(1);
-            } else {
-                endDate = startDate.plusMonths(1);
-            }
-
-            Subscription subscription = new Subscription(memberId, planName, price, startDate, endDate);
+            // The plan's duration sets the end date
+            Subscription subscription = new Subscription(memberId, plan, startDate);
             subscription.setPaymentStatus(paymentStatus);
 
             int subscriptionId = subscriptionDAO.addSubscription(subscription);
@@ -92,7 +89,7 @@ public class SubscriptionService {
             if (subscriptionId > 0) {
                 System.out.println("Subscription added successfully!");
                 System.out.println("Subscription ID: " + subscriptionId);
-                System.out.println("End Date: " + endDate);
+                System.out.println("End Date: " + subscription.getEndDate());
             } else {
                 System.out.println("Failed to add subscription!");
             }
@@ -103,36 +100,66 @@ public class SubscriptionService {
     }
 
     public void viewAllSubscriptions() throws Exception {
-        System.out.println("\n══════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
-        System.out.println("                                                                 ALL SUBSCRIPTIONS");
-        System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
-        System.out.printf("%-15s %-10s %-20s %-15s %-15s %-12s %-12s %-10s%n",
-                "ID", "Member ID", "Plan Name", "Price", "Status", "Start Date", "End Date", "Active");
-        System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+        int totalSubscriptions = subscriptionDAO.countSubscriptions();
+        int totalPages = Math.max(1, (totalSubscriptions + PAGE_SIZE - 1) / PAGE_SIZE);
+
+        // Keyset cursors: the last subscription id of each page before the current one
+        Deque<Integer> previousCursors = new ArrayDeque<>();
+        int cursor = 0;
+        int pageNumber = 1;
+
+        while (true) {
+            System.out.println("\n══════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+            System.out.println("                                                                 ALL SUBSCRIPTIONS");
+            System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+            System.out.printf("%-15s %-10s %-20s %-15s %-15s %-12s %-12s %-10s%n",
+                    "ID", "Member ID", "Plan Name", "Price", "Status", "Start Date", "End Date", "Active");
+            System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+
+            List<Subscription> subscriptions = subscriptionDAO.getSubscriptionsPage(cursor, PAGE_SIZE);
+
+            if (subscriptions.isEmpty()) {
+                System.out.println("No subscriptions found.");
+            } else {
+                for (Subscription subscription : subscriptions) {
+                    String active = subscription.isActive() ? "Yes" : "No";
+
+                    System.out.printf("%-15d %-10d %-20s $%-14.2f %-15s %-12s %-12s %-10s%n",
+                            subscription.getSubscriptionId(),
+                            subscription.getMemberId(),
+                            subscription.getPlanName(),
+                            subscription.getMonthlyPrice(),
+                            subscription.getPaymentStatus(),
+                            subscription.getStartDate(),
+                            subscription.getEndDate(),
+                            active
+                    );
+                }
+            }
 
-        List<Subscription> subscriptions = subscriptionDAO.getAllSubscriptions();
+            System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+            System.out.println("Page " + pageNumber + " of " + totalPages + " | Total Subscriptions: " + totalSubscriptions);
 
-        if (subscriptions.isEmpty()) {
-            System.out.println("No subscriptions found.");
-        } else {
-            for (Subscription subscription : subscriptions) {
-                String active = subscription.isActive() ? "Yes" : "No";
+            boolean hasNext = subscriptions.size() == PAGE_SIZE && pageNumber < totalPages;
+            boolean hasPrevious = !previousCursors.isEmpty();
+            if (!hasNext && !hasPrevious) {
+                return;
+            }
 
-                System.out.printf("%-15d %-10d %-20s $%-14.2f %-15s %-12s %-12s %-10s%n",
-                        subscription.getSubscriptionId(),
-                        subscription.getMemberId(),
-                        subscription.getPlanName(),
-                        subscription.getMonthlyPrice(),
-                        subscription.getPaymentStatus(),
-                        subscription.getStartDate(),
-                        subscription.getEndDate(),
-                        active
-                );
+            System.out.print((hasNext ? "[N]ext  " : "") + (hasPrevious ? "[P]revious  " : "") + "[Q]uit: ");
+            String choice = scanner.nextLine().trim();
+
+            if (hasNext && choice.equalsIgnoreCase("n")) {
+                previousCursors.push(cursor);
+                cursor = subscriptions.get(subscriptions.size() - 1).getSubscriptionId();
+                pageNumber++;
+            } else if (hasPrevious && choice.equalsIgnoreCase("p")) {
+                cursor = previousCursors.pop();
+                pageNumber--;
+            } else if (choice.equalsIgnoreCase("q")) {
+                return;
             }
         }
-
-        System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
-        System.out.println("Total Subscriptions: " + subscriptions.size());
     }
 
     public void renewSubscription() throws Exception {
@@ -165,17 +192,17 @@ public class SubscriptionService {
             }
 
             System.out.print("Mark as PAID? (yes/no): ");
-            String markPaid = scanner.nextLine();
-
-            boolean success = subscriptionDAO.renewSubscription(subscriptionId, days);
+            boolean markPaid = scanner.nextLine().equalsIgnoreCase("yes");
 
-            if (success && markPaid.equalsIgnoreCase("yes")) {
-                subscriptionDAO.updatePaymentStatus(subscriptionId, "PAID");
-            }
+            // Extension and payment status change in one statement
+            BulkUpdateResult result = subscriptionDAO.renewSubscriptions(List.of(subscriptionId), days, markPaid);
 
-            if (success) {
+            if (result.affectedRows() > 0) {
+                Subscription renewed = result.updated().get(0);
                 System.out.println("Subscription renewed successfully!");
                 System.out.println("Extended by " + days + " days");
+                System.out.println("New End Date: " + renewed.getEndDate());
+                System.out.println("Payment Status: " + renewed.getPaymentStatus());
             } else {
                 System.out.println("Failed to renew subscription!");
             }
@@ -185,6 +212,92 @@ public class SubscriptionService {
         }
     }
 
+    public void bulkRenewSubscriptions() throws Exception {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("         BULK RENEW SUBSCRIPTIONS");
+        System.out.println("══════════════════════════════════════════");
+
+        try {
+            System.out.println("1. Enter subscription IDs");
+            System.out.println("2. All paid subscriptions expiring within N days");
+            System.out.print("Select (1-2): ");
+            int source = Integer.parseInt(scanner.nextLine());
+
+            List<Integer> subscriptionIds;
+            if (source == 1) {
+                subscriptionIds = readSubscriptionIds();
+            } else if (source == 2) {
+                System.out.print("Expiring within how many days? ");
+                int withinDays = Integer.parseInt(scanner.nextLine());
+                subscriptionIds = new ArrayList<>();
+                for (Subscription subscription : ExpiryScheduler.getInstance().getExpiringSubscriptions(withinDays)) {
+                    subscriptionIds.add(subscription.getSubscriptionId());
+                }
+            } else {
+                System.out.println("Invalid choice!");
+                return;
+            }
+
+            if (subscriptionIds.isEmpty()) {
+                System.out.println("No subscriptions selected.");
+                return;
+            }
+
+            System.out.print("Extend by how many days? ");
+            int days = Integer.parseInt(scanner.nextLine());
+            if (days <= 0) {
+                System.out.println("Invalid number of days!");
+                return;
+            }
+
+            System.out.print("Mark as PAID? (yes/no): ");
+            boolean markPaid = scanner.nextLine().equalsIgnoreCase("yes");
+
+            System.out.print("Renew " + subscriptionIds.size() + " subscription(s) by " + days + " days? (yes/no): ");
+            if (!scanner.nextLine().equalsIgnoreCase("yes")) {
+                System.out.println("Cancelled.");
+                return;
+            }
+
+            printBulkResult(subscriptionDAO.renewSubscriptions(subscriptionIds, days, markPaid));
+
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input!");
+        }
+    }
+
+    public void bulkUpdatePaymentStatus() throws Exception {
+        System.out.println("\n══════════════════════════════════════════");
+        System.out.println("       BULK UPDATE PAYMENT STATUS");
+        System.out.println("══════════════════════════════════════════");
+
+        try {
+            List<Integer> subscriptionIds = readSubscriptionIds();
+            if (subscriptionIds.isEmpty()) {
+                System.out.println("No subscriptions selected.");
+                return;
+            }
+
+            System.out.print("New Payment Status (PAID/PENDING/OVERDUE): ");
+            String status = scanner.nextLine().trim().toUpperCase();
+            if (!status.equals("PAID") && !status.equals("PENDING") && !status.equals("OVERDUE")) {
+                System.out.println("Invalid payment status!");
+                return;
+            }
+
+            System.out.print("Set " + subscriptionIds.size() + " subscription(s) to " + status + "? (yes/no): ");
+            if (!scanner.nextLine().equalsIgnoreCase("yes")) {
+                System.out.println("Cancelled.");
+                return;
+            }
+
+            printBulkResult(subscriptionDAO.updatePaymentStatuses(subscriptionIds, status));
+
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input!");
+        }
+    }
+
     public void searchSubscriptions() throws Exception {
         System.out.println("\n══════════════════════════════════════════");
         System.out.println("         SEARCH SUBSCRIPTIONS");
@@ -196,9 +309,24 @@ public class SubscriptionService {
         System.out.print("Search by Payment Status (PAID/PENDING/OVERDUE) [leave blank]: ");
         String paymentStatus = scanner.nextLine();
 
+        List<Plan> plans = planCatalog.getAllPlans();
+        printPlanChoices(plans);
+        System.out.print("Search by Plan (1-" + plans.size() + ") [leave blank]: ");
+        String planChoice = scanner.nextLine();
+        int planId = 0;
+        if (!planChoice.isEmpty()) {
+            int index = Integer.parseInt(planChoice);
+            if (index < 1 || index > plans.size()) {
+                System.out.println("Invalid plan!");
+                return;
+            }
+            planId = plans.get(index - 1).getPlanId();
+        }
+
         List<Subscription> subscriptions = subscriptionDAO.searchSubscriptions(
                 memberName.isEmpty() ? null : memberName,
-                paymentStatus.isEmpty() ? null : paymentStatus
+                paymentStatus.isEmpty() ? null : paymentStatus,
+                planId
         );
 
         System.out.println("\n══════════════════════════════════════════════════════════════════════════════════════════════════════");
@@ -228,4 +356,54 @@ public class SubscriptionService {
         System.out.println("══════════════════════════════════════════════════════════════════════════════════════════════════════");
         System.out.println("Found " + subscriptions.size() + " subscription(s)");
     }
+
+    private void printPlanChoices(List<Plan> plans) {
+        for (int i = 0; i < plans.size(); i++) {
+            Plan plan = plans.get(i);
+            System.out.printf("%d. %s - $%.2f (%d month%s)%s\n", i + 1, plan.getPlanName(), plan.getPrice(),
+                    plan.getDurationMonths(), plan.getDurationMonths() == 1 ? "" : "s",
+                    plan.isActive() ? "" : " [retired]");
+        }
+    }
+
+    // Accepts ids and ranges separated by commas or spaces, e.g. "12, 15 20-25"
+    private List<Integer> readSubscriptionIds() {
+        System.out.print("Subscription IDs (e.g. 12, 15, 20-25): ");
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (String part : scanner.nextLine().split("[,\\s]+")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            int dash = part.indexOf('-');
+            if (dash > 0) {
+                int from = Integer.parseInt(part.substring(0, dash));
+                int to = Integer.parseInt(part.substring(dash + 1));
+                // Checked before expanding, so a huge range is refused without allocating it
+                if ((long) to - from + 1 + ids.size() > MAX_BULK_IDS) {
+                    System.out.println("At most " + MAX_BULK_IDS + " subscriptions can be updated at once!");
+                    return new ArrayList<>();
+                }
+                for (long id = from; id <= to; id++) {
+                    ids.add((int) id);
+                }
+            } else {
+                ids.add(Integer.parseInt(part));
+                if (ids.size() > MAX_BULK_IDS) {
+                    System.out.println("At most " + MAX_BULK_IDS + " subscriptions can be updated at once!");
+                    return new ArrayList<>();
+                }
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private void printBulkResult(BulkUpdateResult result) {
+        System.out.println("\n" + result);
+
+        List<Integer> notUpdated = result.notUpdatedIds();
+        if (!notUpdated.isEmpty()) {
+            System.out.println("Not found or deleted (" + notUpdated.size() + "): " +
+                    (notUpdated.size() > 20 ? notUpdated.subList(0, 20) + " ..." : notUpdated));
+        }
+    }
 }
\ No newline at end of file
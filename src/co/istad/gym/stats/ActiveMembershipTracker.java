@@ -0,0 +1,377 @@
+package co.istad.gym.stats;
+
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.dao.MemberDAO;
+import co.istad.gym.dao.MemberListener;
+import co.istad.gym.dao.StatisticsDAO;
+import co.istad.gym.dao.SubscriptionListener;
+import co.istad.gym.expiry.ExpiryListener;
+import co.istad.gym.expiry.ExpiryScheduler;
+import co.istad.gym.model.Subscription;
+import co.istad.gym.util.IntIntMap;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Tracks, for every live member with a paid, unexpired subscription, the
+// latest end date among those subscriptions, plus how many members' latest end
+// falls on each day. "Is member X active" is one primitive map lookup and
+// "how many members are active" is a running total minus the days that have
+// passed since the last sweep, which runs on each expiry rollover.
+//
+// Writes that can only extend a member's coverage are applied directly. Ones
+// that may shorten it (payment status changes, deletes) re-read that member's
+// subscriptions in the background.
+public class ActiveMembershipTracker implements MemberListener, SubscriptionListener, ExpiryListener {
+    private static final int NONE = Integer.MIN_VALUE;
+    private static final long REBUILD_INTERVAL_MINUTES = Long.getLong("gym.activeMembers.rebuildMinutes", 60L);
+
+    private static final ActiveMembershipTracker INSTANCE = new ActiveMembershipTracker(
+            DAOFactory.getStatisticsDAO(), DAOFactory.getMemberDAO());
+
+    private final StatisticsDAO statisticsDAO;
+    private final MemberDAO memberDAO;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ScheduledExecutorService scheduler;
+
+    // Guarded by lock
+    private Memberships memberships = new Memberships();
+    private boolean ready;
+    private List<Runnable> pendingDuringBuild;
+    // member_id -> events for that member seen while it is being recomputed
+    private final Map<Integer, List<Runnable>> pendingDuringRecompute = new HashMap<>();
+
+    ActiveMembershipTracker(StatisticsDAO statisticsDAO, MemberDAO memberDAO) {
+        this.statisticsDAO = statisticsDAO;
+        this.memberDAO = memberDAO;
+    }
+
+    public static ActiveMembershipTracker getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        DAOFactory.addMemberListener(this);
+        DAOFactory.addSubscriptionListener(this);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gym-active-members");
+            t.setDaemon(true);
+            return t;
+        });
+        // The periodic reload corrects anything the incremental updates missed
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, 0, REBUILD_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        // Expired members are dropped when the expiry scheduler rolls the day over
+        ExpiryScheduler.getInstance().addListener(this);
+    }
+
+    public synchronized void stop() {
+        ExpiryScheduler.getInstance().removeListener(this);
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Falls back to the member's subscriptions until the tracker has been loaded
+    public boolean isActive(int memberId) throws Exception {
+        int today = today();
+        lock.readLock().lock();
+        try {
+            if (ready) {
+                return memberships.latestEndDay.get(memberId, NONE) >= today;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return latestPaidEndDay(memberId) >= today;
+    }
+
+    // Falls back to the database until the tracker has been loaded
+    public int countActiveMembers() throws Exception {
+        int today = today();
+        lock.readLock().lock();
+        try {
+            if (ready) {
+                return memberships.countActive(today);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return memberDAO.countActiveMembers();
+    }
+
+    public void rebuild() throws Exception {
+        lock.writeLock().lock();
+        try {
+            pendingDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Memberships fresh;
+        try {
+            fresh = new Memberships(statisticsDAO.getLatestPaidEndDays());
+        } catch (Exception | Error e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Writes that raced with the load are replayed on top of the new state
+            List<Runnable> pending = pendingDuringBuild;
+            pendingDuringBuild = null;
+            memberships = fresh;
+            for (Runnable change : pending) {
+                change.run();
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drops members whose coverage ended before today
+    public void sweep() {
+        int today = today();
+        lock.writeLock().lock();
+        try {
+            memberships.dropBefore(today);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // EXPIRY EVENTS
+    @Override
+    public void onSubscriptionsExpired(LocalDate today, List<Subscription> expired) {
+        sweep();
+    }
+
+    // MEMBER EVENTS
+    @Override
+    public void onMemberRemoved(int memberId) {
+        apply(memberId, () -> memberships.set(memberId, NONE));
+    }
+
+    @Override
+    public void onBulkChange() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+        }
+        if (current != null) {
+            current.execute(this::rebuildQuietly);
+        }
+    }
+
+    // SUBSCRIPTION EVENTS
+    @Override
+    public void onSubscriptionAdded(Subscription subscription) {
+        int endDay = coveredUntil(subscription);
+        if (endDay != NONE) {
+            apply(subscription.getMemberId(), () -> memberships.extend(subscription.getMemberId(), endDay));
+        }
+    }
+
+    @Override
+    public void onSubscriptionChanged(Subscription before, Subscription after) {
+        int beforeEnd = coveredUntil(before);
+        int afterEnd = coveredUntil(after);
+        if (afterEnd != NONE) {
+            apply(after.getMemberId(), () -> memberships.extend(after.getMemberId(), afterEnd));
+        }
+        if (beforeEnd != NONE && (afterEnd == NONE || afterEnd < beforeEnd)) {
+            recomputeLater(before.getMemberId());
+        }
+    }
+
+    @Override
+    public void onSubscriptionRemoved(Subscription before) {
+        if (coveredUntil(before) != NONE) {
+            recomputeLater(before.getMemberId());
+        }
+    }
+
+    private void apply(int memberId, Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingDuringBuild != null) {
+                pendingDuringBuild.add(change);
+            }
+            List<Runnable> recompute = pendingDuringRecompute.get(memberId);
+            if (recompute != null) {
+                recompute.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The member may still be covered by another subscription, which only the database knows
+    private void recomputeLater(int memberId) {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+        }
+        if (current != null) {
+            current.execute(() -> recompute(memberId));
+        }
+    }
+
+    // Resets one member from the database, then replays that member's events
+    // that arrived during the read, the same way rebuild() does for everyone
+    private void recompute(int memberId) {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRecompute.put(memberId, new ArrayList<>());
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        int endDay;
+        try {
+            endDay = latestPaidEndDay(memberId);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRecompute.remove(memberId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.err.println("Error recomputing active membership: " + e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<Runnable> changes = new ArrayList<>();
+            changes.add(() -> memberships.set(memberId, endDay));
+            changes.addAll(pendingDuringRecompute.remove(memberId));
+            for (Runnable change : changes) {
+                change.run();
+                if (pendingDuringBuild != null) {
+                    pendingDuringBuild.add(change);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int latestPaidEndDay(int memberId) throws Exception {
+        return statisticsDAO.getLatestPaidEndDay(memberId).orElse(NONE);
+    }
+
+    // Epoch day this subscription keeps its member active until, or NONE
+    private static int coveredUntil(Subscription subscription) {
+        if (subscription == null || subscription.isDeleted() || !"PAID".equals(subscription.getPaymentStatus())
+                || subscription.getEndDate() == null) {
+            return NONE;
+        }
+        int endDay = (int) subscription.getEndDate().toEpochDay();
+        return endDay >= today() ? endDay : NONE;
+    }
+
+    private static int today() {
+        return (int) LocalDate.now().toEpochDay();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            System.err.println("Error loading active memberships: " + e.getMessage());
+        }
+    }
+
+    private static class Memberships {
+        // member_id -> epoch day of the latest paid end date
+        private final IntIntMap latestEndDay;
+        // epoch day -> members whose latest end date is that day
+        private final TreeMap<Integer, Integer> membersByEndDay = new TreeMap<>();
+        private int tracked;
+
+        Memberships() {
+            this(new IntIntMap());
+        }
+
+        Memberships(IntIntMap latestEndDay) {
+            this.latestEndDay = latestEndDay;
+            latestEndDay.forEach((memberId, endDay) -> addDay(endDay, 1));
+            tracked = latestEndDay.size();
+        }
+
+        int countActive(int today) {
+            int expired = 0;
+            for (int count : membersByEndDay.headMap(today, false).values()) {
+                expired += count;
+            }
+            return tracked - expired;
+        }
+
+        void extend(int memberId, int endDay) {
+            int current = latestEndDay.get(memberId, NONE);
+            if (endDay > current) {
+                set(memberId, endDay);
+            }
+        }
+
+        void set(int memberId, int endDay) {
+            int previous = endDay == NONE
+                    ? latestEndDay.remove(memberId, NONE)
+                    : latestEndDay.put(memberId, endDay, NONE);
+            if (previous != NONE) {
+                addDay(previous, -1);
+                tracked--;
+            }
+            if (endDay != NONE) {
+                addDay(endDay, 1);
+                tracked++;
+            }
+        }
+
+        void dropBefore(int today) {
+            Iterator<Map.Entry<Integer, Integer>> it = membersByEndDay.headMap(today, false).entrySet().iterator();
+            if (!it.hasNext()) {
+                return;
+            }
+            while (it.hasNext()) {
+                tracked -= it.next().getValue();
+                it.remove();
+            }
+            latestEndDay.removeIf((memberId, endDay) -> endDay < today);
+        }
+
+        private void addDay(int endDay, int delta) {
+            membersByEndDay.merge(endDay, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package co.istad.gym.stats;
+
+import co.istad.gym.dao.DAOFactory;
+import co.istad.gym.dao.MemberListener;
+import co.istad.gym.dao.StatisticsDAO;
+import co.istad.gym.dao.SubscriptionListener;
+import co.istad.gym.expiry.ExpiryListener;
+import co.istad.gym.expiry.ExpiryScheduler;
+import co.istad.gym.model.DashboardSnapshot;
+import co.istad.gym.model.Member;
+import co.istad.gym.model.PlanRevenue;
+import co.istad.gym.model.StatisticsTotals;
+import co.istad.gym.model.Subscription;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps the report counters in memory. DAO writes adjust them incrementally and
+// a periodic reconcile against the database replaces them, which corrects any
+// drift and picks up date-driven changes such as subscriptions expiring.
+public class StatisticsEngine implements MemberListener, SubscriptionListener, ExpiryListener {
+    public static final int EXPIRING_WITHIN_DAYS = 7;
+
+    private static final long RECONCILE_INTERVAL_MINUTES = Long.getLong("gym.stats.reconcileMinutes", 5L);
+
+    private static final StatisticsEngine INSTANCE =
+            new StatisticsEngine(DAOFactory.getStatisticsDAO(), ActiveMembershipTracker.getInstance());
+
+    private final StatisticsDAO statisticsDAO;
+    private final ActiveMembershipTracker activeMembership;
+    private final AtomicBoolean reconcileQueued = new AtomicBoolean();
+    private final Object reconcileLock = new Object();
+    private ScheduledExecutorService scheduler;
+
+    // Guarded by this
+    private LocalDate asOf;
+    private int totalMembers;
+    private int activeMembers;
+    private int totalSubscriptions;
+    private int activeSubscriptions;
+    private int expiringSubscriptions;
+    private double monthlyRevenue;
+    // plan_id -> totals; subscriptions without a plan are kept under 0
+    private final Map<Integer, PlanTotals> planTotals = new TreeMap<>();
+    private LocalDateTime lastReconciledAt;
+    private long reconcileCount;
+    // Set while a reconcile reads the database, so events can be replayed over its result
+    private List<Runnable> pendingDuringReconcile;
+
+    StatisticsEngine(StatisticsDAO statisticsDAO, ActiveMembershipTracker activeMembership) {
+        this.statisticsDAO = statisticsDAO;
+        this.activeMembership = activeMembership;
+    }
+
+    public static StatisticsEngine getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        DAOFactory.addMemberListener(this);
+        DAOFactory.addSubscriptionListener(this);
+        ExpiryScheduler.getInstance().addListener(this);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gym-stats-reconcile");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0,
+                RECONCILE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        ExpiryScheduler.getInstance().removeListener(this);
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public DashboardSnapshot snapshot() throws Exception {
+        ensureCurrent();
+        // The tracker follows every write, so its count is fresher than the last reconcile
+        int active = activeMembership.isReady() ? activeMembership.countActiveMembers() : -1;
+        synchronized (this) {
+            return new DashboardSnapshot(asOf, totalMembers, active >= 0 ? active : activeMembers, totalSubscriptions,
+                    activeSubscriptions, expiringSubscriptions, EXPIRING_WITHIN_DAYS, monthlyRevenue);
+        }
+    }
+
+    public List<PlanRevenue> getPlanTotals() throws Exception {
+        ensureCurrent();
+        synchronized (this) {
+            List<PlanRevenue> totals = new ArrayList<>(planTotals.size());
+            for (Map.Entry<Integer, PlanTotals> entry : planTotals.entrySet()) {
+                PlanTotals plan = entry.getValue();
+                if (plan.subscriptions > 0) {
+                    totals.add(new PlanRevenue(entry.getKey(), plan.planName, plan.subscriptions, plan.revenue));
+                }
+            }
+            return totals;
+        }
+    }
+
+    public synchronized LocalDateTime getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+
+    public synchronized long getReconcileCount() {
+        return reconcileCount;
+    }
+
+    // Replaces every counter with freshly aggregated values from the database.
+    // A failed read throws and leaves the previous counters in place.
+    public void reconcile() throws Exception {
+        // One reconcile at a time, or their pending lists would replace each other
+        synchronized (reconcileLock) {
+            StatisticsTotals fresh;
+            try {
+                // Events are collected from the moment the read's snapshot is fixed: earlier
+                // writes are already in the result, later ones are replayed over it
+                fresh = statisticsDAO.getStatisticsTotals(EXPIRING_WITHIN_DAYS, () -> {
+                    synchronized (this) {
+                        pendingDuringReconcile = new ArrayList<>();
+                    }
+                });
+            } catch (Exception | Error e) {
+                synchronized (this) {
+                    pendingDuringReconcile = null;
+                }
+                throw e;
+            }
+
+            replace(fresh.dashboard(), fresh.planTotals());
+        }
+    }
+
+    private synchronized void replace(DashboardSnapshot fresh, List<PlanRevenue> plans) {
+        List<Runnable> pending = pendingDuringReconcile;
+        pendingDuringReconcile = null;
+
+        asOf = fresh.asOf();
+        totalMembers = fresh.totalMembers();
+        activeMembers = fresh.activeMembers();
+        totalSubscriptions = fresh.totalSubscriptions();
+        activeSubscriptions = fresh.activeSubscriptions();
+        expiringSubscriptions = fresh.expiringSubscriptions();
+        monthlyRevenue = fresh.monthlyRevenue();
+
+        planTotals.clear();
+        for (PlanRevenue plan : plans) {
+            PlanTotals totals = new PlanTotals();
+            totals.planName = plan.planName();
+            totals.subscriptions = plan.subscriptions();
+            totals.revenue = plan.revenue();
+            planTotals.put(plan.planId(), totals);
+        }
+
+        // Writes that raced with the read are applied on top of the fresh counters
+        for (Runnable change : pending) {
+            change.run();
+        }
+
+        lastReconciledAt = LocalDateTime.now();
+        reconcileCount++;
+    }
+
+    public void requestReconcile() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+        }
+        if (current != null && reconcileQueued.compareAndSet(false, true)) {
+            current.execute(() -> {
+                reconcileQueued.set(false);
+                reconcileQuietly();
+            });
+        }
+    }
+
+    // Active members only need the database while the tracker is still loading
+    private void reconcileActiveMembers() {
+        if (!activeMembership.isReady()) {
+            requestReconcile();
+        }
+    }
+
+    private synchronized void record(Runnable change) {
+        change.run();
+        if (pendingDuringReconcile != null) {
+            pendingDuringReconcile.add(change);
+        }
+    }
+
+    // EXPIRY EVENTS
+    @Override
+    public void onSubscriptionsExpired(LocalDate today, List<Subscription> expired) {
+        // Active and expiring counts moved with the date; refresh now rather than on the next read
+        requestReconcile();
+    }
+
+    // MEMBER EVENTS
+    @Override
+    public void onMemberAdded(Member member) {
+        record(() -> totalMembers++);
+    }
+
+    @Override
+    public void onMemberRemoved(int memberId) {
+        record(() -> totalMembers--);
+        // Whether the member counted as active is only known to the database
+        reconcileActiveMembers();
+    }
+
+    @Override
+    public void onBulkChange() {
+        requestReconcile();
+    }
+
+    // SUBSCRIPTION EVENTS
+    @Override
+    public void onSubscriptionAdded(Subscription subscription) {
+        record(() -> apply(subscription, 1));
+        if (isActive(subscription, LocalDate.now())) {
+            // A paid subscription may turn an inactive member active
+            reconcileActiveMembers();
+        }
+    }
+
+    @Override
+    public void onSubscriptionChanged(Subscription before, Subscription after) {
+        LocalDate today = LocalDate.now();
+        record(() -> {
+            apply(before, -1);
+            apply(after, 1);
+        });
+        if (isActive(before, today) != isActive(after, today)) {
+            reconcileActiveMembers();
+        }
+    }
+
+    @Override
+    public void onSubscriptionRemoved(Subscription before) {
+        record(() -> apply(before, -1));
+        if (isActive(before, LocalDate.now())) {
+            reconcileActiveMembers();
+        }
+    }
+
+    private synchronized void apply(Subscription subscription, int sign) {
+        if (subscription == null || subscription.isDeleted() || asOf == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+
+        totalSubscriptions += sign;
+
+        if (isActive(subscription, today)) {
+            activeSubscriptions += sign;
+
+            PlanTotals plan = planTotals.computeIfAbsent(subscription.getPlanId(), k -> new PlanTotals());
+            if (plan.planName == null) {
+                plan.planName = subscription.getPlanName();
+            }
+            plan.subscriptions += sign;
+            plan.revenue += sign * subscription.getMonthlyPrice();
+
+            if (!subscription.getEndDate().isAfter(today.plusDays(EXPIRING_WITHIN_DAYS))) {
+                expiringSubscriptions += sign;
+            }
+        }
+
+        if ("PAID".equals(subscription.getPaymentStatus()) && subscription.getCreatedAt() != null
+                && YearMonth.from(subscription.getCreatedAt()).equals(YearMonth.from(today))) {
+            monthlyRevenue += sign * subscription.getMonthlyPrice();
+        }
+    }
+
+    // Mirrors the SQL definition: PAID and not yet past its end date
+    private static boolean isActive(Subscription subscription, LocalDate today) {
+        return subscription != null && !subscription.isDeleted()
+                && "PAID".equals(subscription.getPaymentStatus())
+                && !subscription.getEndDate().isBefore(today);
+    }
+
+    private void ensureCurrent() throws Exception {
+        LocalDate loadedAsOf;
+        synchronized (this) {
+            loadedAsOf = asOf;
+        }
+        if (loadedAsOf != null && loadedAsOf.equals(LocalDate.now())) {
+            return;
+        }
+        if (loadedAsOf == null) {
+            // Nothing to show yet, so the caller has to see the failure
+            reconcile();
+            return;
+        }
+        // The date rolled over; yesterday's counters beat none if the database is unreachable
+        try {
+            reconcile();
+        } catch (Exception e) {
+            System.err.println("Error reconciling statistics, keeping counters as of " + loadedAsOf + ": "
+                    + e.getMessage());
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            System.err.println("Error reconciling statistics: " + e.getMessage());
+        }
+    }
+
+    private static class PlanTotals {
+        private String planName;
+        private int subscriptions;
+        private double revenue;
+    }
+}
@@ -0,0 +1,213 @@
+package co.istad.gym.util;
+
+import java.util.Arrays;
+
+// Compressed set of non-negative ints in the style of a Roaring bitmap. Values
+// are split into 65536-wide chunks by their high 16 bits. A sparse chunk is a
+// sorted char array (2 bytes per value); once it passes 4096 values it becomes
+// a fixed 8 KB bitset. Lookups are a binary search over the chunk keys plus an
+// array or bit probe. Not thread-safe.
+public class IntBitmap {
+    private static final int ARRAY_MAX = 4096;
+
+    private int[] keys = new int[4];
+    private Container[] containers = new Container[4];
+    private int chunks;
+    private int cardinality;
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, 0, chunks, value >>> 16);
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    // Returns true if the value was not already present
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        int high = value >>> 16;
+        int index = Arrays.binarySearch(keys, 0, chunks, high);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, high, new ArrayContainer());
+        }
+        Container container = containers[index];
+        if (!container.add((char) value)) {
+            return false;
+        }
+        if (container instanceof ArrayContainer array && array.size > ARRAY_MAX) {
+            containers[index] = array.toBitmap();
+        }
+        cardinality++;
+        return true;
+    }
+
+    // Returns true if the value was present
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, 0, chunks, value >>> 16);
+        if (index < 0 || !containers[index].remove((char) value)) {
+            return false;
+        }
+        Container container = containers[index];
+        if (container.size() == 0) {
+            removeChunk(index);
+        } else if (container instanceof BitmapContainer bitmap && bitmap.size <= ARRAY_MAX / 2) {
+            // Shrinks with hysteresis, so a chunk hovering at the limit does not flip on every write
+            containers[index] = bitmap.toArray();
+        }
+        cardinality--;
+        return true;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public void clear() {
+        keys = new int[4];
+        containers = new Container[4];
+        chunks = 0;
+        cardinality = 0;
+    }
+
+    private void insertChunk(int index, int high, Container container) {
+        if (chunks == keys.length) {
+            keys = Arrays.copyOf(keys, chunks * 2);
+            containers = Arrays.copyOf(containers, chunks * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunks - index);
+        System.arraycopy(containers, index, containers, index + 1, chunks - index);
+        keys[index] = high;
+        containers[index] = container;
+        chunks++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, chunks - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, chunks - index - 1);
+        chunks--;
+        containers[chunks] = null;
+    }
+
+    private interface Container {
+        boolean contains(char low);
+
+        boolean add(char low);
+
+        boolean remove(char low);
+
+        int size();
+    }
+
+    private static class ArrayContainer implements Container {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        public boolean add(char low) {
+            int pos = Arrays.binarySearch(values, 0, size, low);
+            if (pos >= 0) {
+                return false;
+            }
+            pos = -pos - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = low;
+            size++;
+            return true;
+        }
+
+        @Override
+        public boolean remove(char low) {
+            int pos = Arrays.binarySearch(values, 0, size, low);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static class BitmapContainer implements Container {
+        private final long[] words = new long[1024];
+        private int size;
+
+        @Override
+        public boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        public boolean add(char low) {
+            long before = words[low >>> 6];
+            long after = before | (1L << low);
+            words[low >>> 6] = after;
+            if (before == after) {
+                return false;
+            }
+            size++;
+            return true;
+        }
+
+        @Override
+        public boolean remove(char low) {
+            long before = words[low >>> 6];
+            long after = before & ~(1L << low);
+            words[low >>> 6] = after;
+            if (before == after) {
+                return false;
+            }
+            size--;
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[size];
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    array.values[array.size++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return array;
+        }
+    }
+}
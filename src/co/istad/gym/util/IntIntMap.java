@@ -0,0 +1,162 @@
+package co.istad.gym.util;
+
+import java.util.Arrays;
+
+// Open-addressing hash map from positive int keys to int values, backed by two
+// primitive arrays (no boxing, ~8 bytes per slot). Not thread-safe.
+public class IntIntMap {
+    private static final int EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    public IntIntMap() {
+        this(16);
+    }
+
+    public IntIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(int key) {
+        return keys[slotOf(key)] != EMPTY;
+    }
+
+    public int get(int key, int missing) {
+        int slot = slotOf(key);
+        return keys[slot] != EMPTY ? values[slot] : missing;
+    }
+
+    // Returns the previous value, or missing if the key was absent
+    public int put(int key, int value, int missing) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        int slot = slotOf(key);
+        if (keys[slot] != EMPTY) {
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return missing;
+    }
+
+    // Returns the removed value, or missing if the key was absent
+    public int remove(int key, int missing) {
+        int slot = slotOf(key);
+        if (keys[slot] == EMPTY) {
+            return missing;
+        }
+        int removed = values[slot];
+        size--;
+
+        // Shift later entries of the probe run back so lookups never stop early
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    public void forEach(IntIntConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    // Removes every entry the predicate accepts and returns how many were removed
+    public int removeIf(IntIntPredicate predicate) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        int removed = 0;
+        allocate(keys.length);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+            if (predicate.test(oldKeys[i], oldValues[i])) {
+                removed++;
+            } else {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+        return removed;
+    }
+
+    private int slotOf(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Sequential member ids would otherwise fill one contiguous run of slots
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+
+    @FunctionalInterface
+    public interface IntIntPredicate {
+        boolean test(int key, int value);
+    }
+}
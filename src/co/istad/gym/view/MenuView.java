@@ -1,26 +1,51 @@
 package co.istad.gym.view;
 
+import co.istad.gym.checkin.AccessControl;
+import co.istad.gym.checkin.CheckInWriter;
 import co.istad.gym.config.DatabaseConfig;
+import co.istad.gym.config.SchemaMigrator;
+import co.istad.gym.expiry.ExpiryScheduler;
+import co.istad.gym.plan.PlanCatalog;
+import co.istad.gym.search.MemberSearchIndex;
+import co.istad.gym.service.CheckInService;
+import co.istad.gym.service.DataTransferService;
 import co.istad.gym.service.MemberService;
+import co.istad.gym.service.PlanService;
 import co.istad.gym.service.SubscriptionService;
 import co.istad.gym.service.ReportService;
+import co.istad.gym.stats.ActiveMembershipTracker;
+import co.istad.gym.stats.StatisticsEngine;
 import java.util.Scanner;
 
 public class MenuView {
     private final Scanner scanner;
     private final MemberService memberService;
     private final SubscriptionService subscriptionService;
+    private final PlanService planService;
+    private final CheckInService checkInService;
     private final ReportService reportService;
+    private final DataTransferService dataTransferService;
 
     public MenuView() {
         this.scanner = new Scanner(System.in);
         this.memberService = new MemberService();
         this.subscriptionService = new SubscriptionService();
+        this.planService = new PlanService();
+        this.checkInService = new CheckInService();
         this.reportService = new ReportService();
+        this.dataTransferService = new DataTransferService();
     }
 
     public void displayMainMenu() throws Exception {
         DatabaseConfig.testConnection();
+        SchemaMigrator.migrate();
+        PlanCatalog.getInstance().start();
+        ActiveMembershipTracker.getInstance().start();
+        StatisticsEngine.getInstance().start();
+        MemberSearchIndex.getInstance().start();
+        ExpiryScheduler.getInstance().start();
+        AccessControl.getInstance().start();
+        CheckInWriter.getInstance().start();
 
         while (true) {
             System.out.println("\n══════════════════════════════════════════");
@@ -28,8 +53,11 @@ public class MenuView {
             System.out.println("══════════════════════════════════════════");
             System.out.println("1. Member Management");
             System.out.println("2. Subscription Management");
-            System.out.println("3. Reports");
-            System.out.println("4. Exit");
+            System.out.println("3. Plan Management");
+            System.out.println("4. Check-In");
+            System.out.println("5. Reports");
+            System.out.println("6. Data Import/Export");
+            System.out.println("7. Exit");
             System.out.print("Choose option: ");
 
             try {
@@ -43,10 +71,24 @@ public class MenuView {
                         subscriptionManagementMenu();
                         break;
                     case 3:
-                        reportsMenu();
+                        planManagementMenu();
                         break;
                     case 4:
+                        checkInMenu();
+                        break;
+                    case 5:
+                        reportsMenu();
+                        break;
+                    case 6:
+                        dataTransferMenu();
+                        break;
+                    case 7:
                         System.out.println("\nThank you for using Gym Management System!");
+                        CheckInWriter.getInstance().stop();
+                        AccessControl.getInstance().stop();
+                        StatisticsEngine.getInstance().stop();
+                        ActiveMembershipTracker.getInstance().stop();
+                        ExpiryScheduler.getInstance().stop();
                         DatabaseConfig.closeConnection();
                         scanner.close();
                         return;
@@ -110,8 +152,10 @@ public class MenuView {
             System.out.println("1. Add New Subscription");
             System.out.println("2. View All Subscriptions");
             System.out.println("3. Renew Subscription");
-            System.out.println("4. Search Subscriptions");
-            System.out.println("5. Back to Main Menu");
+            System.out.println("4. Bulk Renew Subscriptions");
+            System.out.println("5. Bulk Update Payment Status");
+            System.out.println("6. Search Subscriptions");
+            System.out.println("7. Back to Main Menu");
             System.out.print("Choose option: ");
 
             try {
@@ -128,9 +172,85 @@ public class MenuView {
                         subscriptionService.renewSubscription();
                         break;
                     case 4:
-                        subscriptionService.searchSubscriptions();
+                        subscriptionService.bulkRenewSubscriptions();
                         break;
                     case 5:
+                        subscriptionService.bulkUpdatePaymentStatus();
+                        break;
+                    case 6:
+                        subscriptionService.searchSubscriptions();
+                        break;
+                    case 7:
+                        return;
+                    default:
+                        System.out.println("Invalid choice!");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Please enter a valid number!");
+            }
+        }
+    }
+
+    private void planManagementMenu() throws Exception {
+        while (true) {
+            System.out.println("\n══════════════════════════════════════════");
+            System.out.println("             PLAN MANAGEMENT              ");
+            System.out.println("══════════════════════════════════════════");
+            System.out.println("1. View All Plans");
+            System.out.println("2. Add New Plan");
+            System.out.println("3. Update Plan");
+            System.out.println("4. Back to Main Menu");
+            System.out.print("Choose option: ");
+
+            try {
+                int choice = Integer.parseInt(scanner.nextLine());
+
+                switch (choice) {
+                    case 1:
+                        planService.viewAllPlans();
+                        break;
+                    case 2:
+                        planService.addPlan();
+                        break;
+                    case 3:
+                        planService.updatePlan();
+                        break;
+                    case 4:
+                        return;
+                    default:
+                        System.out.println("Invalid choice!");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Please enter a valid number!");
+            }
+        }
+    }
+
+    private void checkInMenu() throws Exception {
+        while (true) {
+            System.out.println("\n══════════════════════════════════════════");
+            System.out.println("                 CHECK-IN                 ");
+            System.out.println("══════════════════════════════════════════");
+            System.out.println("1. Check In Member");
+            System.out.println("2. View Recent Check-Ins");
+            System.out.println("3. Writer Statistics");
+            System.out.println("4. Back to Main Menu");
+            System.out.print("Choose option: ");
+
+            try {
+                int choice = Integer.parseInt(scanner.nextLine());
+
+                switch (choice) {
+                    case 1:
+                        checkInService.checkInMember();
+                        break;
+                    case 2:
+                        checkInService.viewRecentCheckIns();
+                        break;
+                    case 3:
+                        checkInService.viewWriterStatistics();
+                        break;
+                    case 4:
                         return;
                     default:
                         System.out.println("Invalid choice!");
@@ -150,7 +270,11 @@ public class MenuView {
             System.out.println("2. Subscription Statistics");
             System.out.println("3. Financial Report");
             System.out.println("4. Daily Summary");
-            System.out.println("5. Back to Main Menu");
+            System.out.println("5. All Reports");
+            System.out.println("6. Performance Statistics");
+            System.out.println("7. DAO Metrics");
+            System.out.println("8. Slow Query Log");
+            System.out.println("9. Back to Main Menu");
             System.out.print("Choose option: ");
 
             try {
@@ -170,6 +294,65 @@ public class MenuView {
                         reportService.generateDailySummary();
                         break;
                     case 5:
+                        reportService.generateAllReports();
+                        break;
+                    case 6:
+                        reportService.generatePerformanceReport();
+                        break;
+                    case 7:
+                        reportService.generateDaoMetricsReport();
+                        break;
+                    case 8:
+                        reportService.generateSlowQueryReport();
+                        break;
+                    case 9:
+                        return;
+                    default:
+                        System.out.println("Invalid choice!");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Please enter a valid number!");
+            }
+        }
+    }
+
+    private void dataTransferMenu() throws Exception {
+        while (true) {
+            System.out.println("\n══════════════════════════════════════════");
+            System.out.println("            DATA IMPORT/EXPORT            ");
+            System.out.println("══════════════════════════════════════════");
+            System.out.println("1. Import Members (CSV)");
+            System.out.println("2. Import Subscriptions (CSV)");
+            System.out.println("3. Bulk Load Members (COPY)");
+            System.out.println("4. Bulk Load Subscriptions (COPY)");
+            System.out.println("5. Export Members (COPY)");
+            System.out.println("6. Export Subscriptions (COPY)");
+            System.out.println("7. Back to Main Menu");
+            System.out.print("Choose option: ");
+
+            try {
+                int choice = Integer.parseInt(scanner.nextLine());
+
+                switch (choice) {
+                    case 1:
+                        dataTransferService.importMembersFromCsv();
+                        break;
+                    case 2:
+                        dataTransferService.importSubscriptionsFromCsv();
+                        break;
+                    case 3:
+                        dataTransferService.bulkLoadMembers();
+                        break;
+                    case 4:
+                        dataTransferService.bulkLoadSubscriptions();
+                        break;
+                    case 5:
+                        dataTransferService.exportMembers();
+                        break;
+                    case 6:
+                        dataTransferService.exportSubscriptions();
+                        break;
+                    case 7:
                         return;
                     default:
                         System.out.println("Invalid choice!");